@@ -0,0 +1,127 @@
+package org.ibs.benchmarks;
+
+import org.ibs.pages.FoodPage;
+import org.ibs.utils.Locators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость слоя page object: чтение таблицы товаров разными способами на таблицах от 4 до 10 000 строк.
+ * <p>
+ * Страница-заглушка с нужным числом строк генерируется в файл и открывается в headless Chrome.
+ * Сравниваются {@link FoodPage#getTableRows()}, поячеечное чтение через относительные XPath {@code ./td[1..3]}
+ * из {@link Locators.FoodPage}, то же через CSS-селекторы и чтение всей таблицы одним скриптом
+ * ({@link FoodPage#snapshotTable()}) или порциями ({@link FoodPage#streamRows()}).
+ * <p>
+ * Запуск с замером выделения памяти на операцию: {@code java -jar benchmarks/target/benchmarks.jar -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class FoodPageBenchmark {
+    /**
+     * CSS-эквиваленты XPath-локаторов {@link Locators.FoodPage}.
+     */
+    static final By CSS_TABLE_ROWS = By.cssSelector("table > tbody > tr");
+    static final By CSS_TABLE_ROW_NAME = By.cssSelector(":scope > td:nth-of-type(1)");
+    static final By CSS_TABLE_ROW_TYPE = By.cssSelector(":scope > td:nth-of-type(2)");
+    static final By CSS_TABLE_ROW_EXOTIC = By.cssSelector(":scope > td:nth-of-type(3)");
+
+    @Param({"4", "100", "1000", "10000"})
+    public int rows;
+
+    private WebDriver driver;
+    private FoodPage foodPage;
+    private Path page;
+
+    @Setup(Level.Trial)
+    public void openPage() throws IOException {
+        page = Files.createTempFile("food-" + rows + "-", ".html");
+        Files.writeString(page, stubPage(rows), StandardCharsets.UTF_8);
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new");
+        driver = new ChromeDriver(options);
+        driver.get(page.toUri().toString());
+        foodPage = new FoodPage(driver);
+    }
+
+    @TearDown(Level.Trial)
+    public void closePage() throws IOException {
+        driver.quit();
+        Files.deleteIfExists(page);
+    }
+
+    @Benchmark
+    public void getTableRows(Blackhole blackhole) {
+        blackhole.consume(foodPage.getTableRows());
+    }
+
+    @Benchmark
+    public void perRowXPath(Blackhole blackhole) {
+        for (WebElement row : driver.findElements(Locators.FoodPage.TABLE_ROWS)) {
+            blackhole.consume(row.findElement(Locators.FoodPage.TABLE_ROW_NAME).getText());
+            blackhole.consume(row.findElement(Locators.FoodPage.TABLE_ROW_TYPE).getText());
+            blackhole.consume(row.findElement(Locators.FoodPage.TABLE_ROW_EXOTIC).getText());
+        }
+    }
+
+    @Benchmark
+    public void perRowCss(Blackhole blackhole) {
+        for (WebElement row : driver.findElements(CSS_TABLE_ROWS)) {
+            blackhole.consume(row.findElement(CSS_TABLE_ROW_NAME).getText());
+            blackhole.consume(row.findElement(CSS_TABLE_ROW_TYPE).getText());
+            blackhole.consume(row.findElement(CSS_TABLE_ROW_EXOTIC).getText());
+        }
+    }
+
+    @Benchmark
+    public void bulkJs(Blackhole blackhole) {
+        blackhole.consume(foodPage.snapshotTable());
+    }
+
+    @Benchmark
+    public void streamed(Blackhole blackhole) {
+        foodPage.streamRows().forEach(blackhole::consume);
+    }
+
+    /**
+     * Страница с той же разметкой таблицы, что у приложения "Еда".
+     */
+    static String stubPage(int rows) {
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html lang=\"ru\"><head><meta charset=\"UTF-8\"></head><body>")
+                .append("<table class=\"table\"><thead><tr><th>#</th><th>Наименование</th><th>Тип</th><th>Экзотический</th></tr></thead><tbody>");
+        for (int i = 1; i <= rows; i++) {
+            boolean fruit = i % 2 == 0;
+            html.append("<tr><th scope=\"row\">").append(i).append("</th><td>Товар ").append(i)
+                    .append("</td><td>").append(fruit ? "Фрукт" : "Овощ")
+                    .append("</td><td>").append(i % 3 == 0).append("</td></tr>");
+        }
+        return html.append("</tbody></table></body></html>").toString();
+    }
+}
@@ -0,0 +1,81 @@
+package org.ibs.api;
+
+import org.ibs.model.FoodRow;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Клиент HTTP API веб-приложения "Еда" ({@code POST /api/food}).
+ */
+public class FoodApiClient {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    private final URI foodUri;
+    private final Json json = new Json();
+
+    /**
+     * @param baseUrl адрес страницы со списком продуктов, например {@code http://localhost:8080/food}.
+     */
+    public FoodApiClient(String baseUrl) {
+        this.foodUri = URI.create(baseUrl).resolve("/api/food");
+    }
+
+    /**
+     * Добавляет товар.
+     * @throws IOException если запрос не выполнен или приложение вернуло ошибку.
+     */
+    public void addFood(FoodRow row) throws IOException {
+        addAll(List.of(row));
+    }
+
+    /**
+     * Добавляет товары, отправляя запросы одновременно, и дожидается ответа на каждый.
+     * @throws IOException если хотя бы один запрос не выполнен или приложение вернуло ошибку.
+     */
+    public void addAll(List<FoodRow> rows) throws IOException {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(rows.size());
+        for (FoodRow row : rows) {
+            responses.add(client.sendAsync(request(row), HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> future : responses) {
+            HttpResponse<String> response;
+            try {
+                response = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Ожидание ответа /api/food прервано");
+            } catch (ExecutionException e) {
+                throw new IOException("Ошибка запроса " + foodUri, e.getCause());
+            }
+            if (response.statusCode() >= 300) {
+                throw new IOException("Приложение вернуло " + response.statusCode() + " на " + foodUri + ": " + response.body());
+            }
+        }
+    }
+
+    private HttpRequest request(FoodRow row) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", row.name());
+        body.put("type", row.type().name());
+        body.put("exotic", row.exotic());
+        return HttpRequest.newBuilder(foodUri)
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json.toJson(body)))
+                .build();
+    }
+}
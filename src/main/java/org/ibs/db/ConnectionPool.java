@@ -0,0 +1,93 @@
+package org.ibs.db;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Небольшой пул JDBC-соединений. Соединения создаются по мере необходимости, но не более {@code maxSize} одновременно.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private final String url;
+    private final String user;
+    private final String password;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> connections = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String user, String password, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Размер пула соединений должен быть положительным");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Выдаёт соединение из пула. Блокируется, пока все соединения заняты.
+     * Соединение необходимо вернуть вызовом {@link PooledConnection#close()}.
+     */
+    public PooledConnection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("Пул соединений закрыт");
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Ожидание соединения прервано", e);
+        }
+        try {
+            PooledConnection connection;
+            while ((connection = idle.pollFirst()) != null) {
+                if (!connection.getConnection().isClosed()) {
+                    return connection;
+                }
+                discard(connection);
+            }
+            connection = new PooledConnection(this, DriverManager.getConnection(url, user, password));
+            connections.add(connection);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    void release(PooledConnection connection) {
+        try {
+            if (closed || connection.getConnection().isClosed()) {
+                discard(connection);
+            } else {
+                idle.offerFirst(connection);
+            }
+        } catch (SQLException e) {
+            discard(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Закрывает все соединения пула вместе с их подготовленными запросами.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (PooledConnection connection : connections) {
+            discard(connection);
+        }
+        idle.clear();
+    }
+
+    private void discard(PooledConnection connection) {
+        connections.remove(connection);
+        connection.closePhysically();
+    }
+}
@@ -0,0 +1,197 @@
+package org.ibs.db;
+
+import org.ibs.model.FoodRow;
+import org.ibs.model.FoodType;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Доступ к таблице FOOD через пул соединений с кешем подготовленных запросов.
+ * <p>
+ * Каждый метод берёт соединение из пула и возвращает его, а результаты запросов закрывает, в том числе при ошибке.
+ */
+public class FoodRepository implements AutoCloseable {
+    private static final String COUNT_MATCHING =
+            "SELECT COUNT(FOOD_ID) FROM FOOD WHERE FOOD_NAME = ? AND FOOD_TYPE = ? AND FOOD_EXOTIC = ?";
+    private static final String FIND_BY_NAME =
+            "SELECT FOOD_NAME, FOOD_TYPE, FOOD_EXOTIC FROM FOOD WHERE FOOD_NAME = ? ORDER BY FOOD_ID";
+    private static final String FIND_BY_NAMES =
+            "SELECT FOOD_NAME, FOOD_TYPE, FOOD_EXOTIC FROM FOOD WHERE FOOD_NAME = ANY(?) ORDER BY FOOD_ID";
+    private static final String FIND_ALL = "SELECT FOOD_NAME, FOOD_TYPE, FOOD_EXOTIC FROM FOOD ORDER BY FOOD_ID";
+    private static final String FIND_ALL_NAMES = "SELECT DISTINCT FOOD_NAME FROM FOOD";
+    private static final String COUNT_DUPLICATE_ROWS = "SELECT COALESCE(SUM(D.CNT - 1), 0) FROM ("
+            + "SELECT COUNT(FOOD_ID) AS CNT FROM FOOD WHERE FOOD_NAME LIKE ? GROUP BY FOOD_NAME HAVING COUNT(FOOD_ID) > 1) AS D";
+    private static final String INSERT = "INSERT INTO FOOD VALUES (DEFAULT,?,?,?)";
+    private static final String DELETE_BY_NAME = "DELETE FROM FOOD WHERE FOOD_NAME = ?";
+
+    private final ConnectionPool pool;
+
+    public FoodRepository(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Количество строк с заданными наименованием, типом и экзотичностью.
+     */
+    public int countMatching(String name, FoodType type, boolean exotic) throws SQLException {
+        try (PooledConnection connection = pool.acquire()) {
+            PreparedStatement statement = connection.prepare(COUNT_MATCHING);
+            statement.setString(1, name);
+            statement.setString(2, type.name());
+            statement.setInt(3, exotic ? 1 : 0);
+            return queryInt(statement);
+        }
+    }
+
+    /**
+     * Количество лишних строк с повторяющимся наименованием: для наименования, встречающегося n раз, считается n - 1.
+     * @param namePattern шаблон наименования для оператора LIKE.
+     */
+    public int countDuplicateRows(String namePattern) throws SQLException {
+        try (PooledConnection connection = pool.acquire()) {
+            PreparedStatement statement = connection.prepare(COUNT_DUPLICATE_ROWS);
+            statement.setString(1, namePattern);
+            return queryInt(statement);
+        }
+    }
+
+    /**
+     * Строки с заданным наименованием в порядке добавления.
+     */
+    public List<FoodRow> findByName(String name) throws SQLException {
+        try (PooledConnection connection = pool.acquire()) {
+            PreparedStatement statement = connection.prepare(FIND_BY_NAME);
+            statement.setString(1, name);
+            return queryRows(statement);
+        }
+    }
+
+    /**
+     * Строки с любым из заданных наименований одним запросом, в порядке добавления.
+     */
+    public List<FoodRow> findByNames(Collection<String> names) throws SQLException {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        try (PooledConnection connection = pool.acquire()) {
+            PreparedStatement statement = connection.prepare(FIND_BY_NAMES);
+            Array array = connection.getConnection().createArrayOf("VARCHAR", names.toArray());
+            try {
+                statement.setArray(1, array);
+                return queryRows(statement);
+            } finally {
+                array.free();
+            }
+        }
+    }
+
+    /**
+     * Все строки таблицы в порядке добавления.
+     */
+    public List<FoodRow> findAll() throws SQLException {
+        try (PooledConnection connection = pool.acquire()) {
+            return queryRows(connection.prepare(FIND_ALL));
+        }
+    }
+
+    /**
+     * Наименования всех строк таблицы одним запросом.
+     */
+    public Set<String> findAllNames() throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (PooledConnection connection = pool.acquire();
+             ResultSet resultSet = connection.prepare(FIND_ALL_NAMES).executeQuery()) {
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+        }
+        return names;
+    }
+
+    public void insert(FoodRow row) throws SQLException {
+        try (PooledConnection connection = pool.acquire()) {
+            PreparedStatement statement = connection.prepare(INSERT);
+            statement.setString(1, row.name());
+            statement.setString(2, row.type().name());
+            statement.setInt(3, row.exotic() ? 1 : 0);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Добавляет строки одним пакетом JDBC в одной транзакции.
+     */
+    public void insertAll(List<FoodRow> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try (PooledConnection connection = pool.acquire()) {
+            Connection jdbc = connection.getConnection();
+            boolean autoCommit = jdbc.getAutoCommit();
+            jdbc.setAutoCommit(false);
+            try {
+                PreparedStatement statement = connection.prepare(INSERT);
+                for (FoodRow row : rows) {
+                    statement.setString(1, row.name());
+                    statement.setString(2, row.type().name());
+                    statement.setInt(3, row.exotic() ? 1 : 0);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                jdbc.commit();
+            } catch (SQLException e) {
+                jdbc.rollback();
+                throw e;
+            } finally {
+                jdbc.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Удаляет строки с заданным наименованием.
+     * @return количество удалённых строк.
+     */
+    public int deleteByName(String name) throws SQLException {
+        try (PooledConnection connection = pool.acquire()) {
+            PreparedStatement statement = connection.prepare(DELETE_BY_NAME);
+            statement.setString(1, name);
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Закрывает пул соединений.
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    private static int queryInt(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private static List<FoodRow> queryRows(PreparedStatement statement) throws SQLException {
+        List<FoodRow> rows = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows.add(new FoodRow(resultSet.getString("FOOD_NAME"),
+                        FoodType.parseCode(resultSet.getString("FOOD_TYPE")),
+                        resultSet.getInt("FOOD_EXOTIC") != 0));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,83 @@
+package org.ibs.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Эталонный снимок таблицы FOOD в теневой таблице и его быстрое восстановление.
+ * <p>
+ * Снимок делается один раз за запуск. Восстановление выполняется двумя запросами в одной транзакции:
+ * удаляются строки, которых нет в снимке, и возвращаются удалённые или изменённые строки снимка.
+ * Стоимость восстановления зависит от числа изменений, а не от размера таблицы.
+ */
+public class FoodSnapshot implements AutoCloseable {
+    private final ConnectionPool pool;
+    private final String table;
+    private final String deleteAdded;
+    private final String restoreBaseline;
+
+    private FoodSnapshot(ConnectionPool pool, String table) {
+        this.pool = pool;
+        this.table = table;
+        this.deleteAdded = "DELETE FROM FOOD WHERE FOOD_NAME LIKE ? AND FOOD_ID NOT IN (SELECT FOOD_ID FROM " + table + ")";
+        this.restoreBaseline = "MERGE INTO FOOD F USING " + table + " B ON F.FOOD_ID = B.FOOD_ID " +
+                "WHEN MATCHED AND (F.FOOD_NAME <> B.FOOD_NAME OR F.FOOD_TYPE <> B.FOOD_TYPE OR F.FOOD_EXOTIC <> B.FOOD_EXOTIC) " +
+                "THEN UPDATE SET FOOD_NAME = B.FOOD_NAME, FOOD_TYPE = B.FOOD_TYPE, FOOD_EXOTIC = B.FOOD_EXOTIC " +
+                "WHEN NOT MATCHED THEN INSERT (FOOD_ID, FOOD_NAME, FOOD_TYPE, FOOD_EXOTIC) " +
+                "VALUES (B.FOOD_ID, B.FOOD_NAME, B.FOOD_TYPE, B.FOOD_EXOTIC)";
+    }
+
+    /**
+     * Копирует текущее содержимое FOOD в теневую таблицу.
+     */
+    public static FoodSnapshot capture(ConnectionPool pool) throws SQLException {
+        String table = "FOOD_BASELINE_" + Integer.toString(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE), 36).toUpperCase();
+        try (PooledConnection connection = pool.acquire();
+             Statement statement = connection.getConnection().createStatement()) {
+            statement.execute("CREATE TABLE " + table + " AS SELECT * FROM FOOD");
+            statement.execute("ALTER TABLE " + table + " ADD PRIMARY KEY (FOOD_ID)");
+        }
+        return new FoodSnapshot(pool, table);
+    }
+
+    /**
+     * Возвращает таблицу FOOD к снимку.
+     * @param addedNamePattern шаблон LIKE для наименований строк, которые разрешено удалить.
+     *                         При параллельном запуске ограничивает удаление строками своего потока.
+     * @return количество удалённых и восстановленных строк.
+     */
+    public int restore(String addedNamePattern) throws SQLException {
+        try (PooledConnection connection = pool.acquire()) {
+            Connection jdbc = connection.getConnection();
+            boolean autoCommit = jdbc.getAutoCommit();
+            jdbc.setAutoCommit(false);
+            try {
+                PreparedStatement delete = connection.prepare(deleteAdded);
+                delete.setString(1, addedNamePattern);
+                int changed = delete.executeUpdate();
+                changed += connection.prepare(restoreBaseline).executeUpdate();
+                jdbc.commit();
+                return changed;
+            } catch (SQLException e) {
+                jdbc.rollback();
+                throw e;
+            } finally {
+                jdbc.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Удаляет теневую таблицу.
+     */
+    @Override
+    public void close() throws SQLException {
+        try (PooledConnection connection = pool.acquire();
+             Statement statement = connection.getConnection().createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.ibs.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Соединение, выданное {@link ConnectionPool}, с кешем подготовленных запросов.
+ * <p>
+ * Запрос подготавливается один раз на соединение и затем переиспользуется. Соединение используется одним потоком,
+ * {@link #close()} возвращает его в пул.
+ */
+public class PooledConnection implements AutoCloseable {
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    PooledConnection(ConnectionPool pool, Connection connection) {
+        this.pool = pool;
+        this.connection = connection;
+    }
+
+    /**
+     * Возвращает подготовленный запрос из кеша соединения или подготавливает новый.
+     * Параметры запроса из предыдущего использования сбрасываются.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        } else {
+            statement.clearParameters();
+        }
+        return statement;
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Возвращает соединение в пул.
+     */
+    @Override
+    public void close() {
+        pool.release(this);
+    }
+
+    /**
+     * Закрывает все подготовленные запросы и само соединение.
+     */
+    void closePhysically() {
+        for (PreparedStatement statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
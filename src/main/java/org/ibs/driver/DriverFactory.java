@@ -0,0 +1,155 @@
+package org.ibs.driver;
+
+import org.ibs.pages.FoodPage;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Создание и сброс сессий браузера для страницы Список товаров.
+ */
+public final class DriverFactory {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration NETWORK_QUIET = Duration.ofMillis(50);
+    /**
+     * Количество исходных строк таблицы при первом открытии страницы каждым драйвером.
+     */
+    private static final Map<WebDriver, Integer> BASELINE_ROWS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private DriverFactory() {
+    }
+
+    /**
+     * Запускает новый ChromeDriver и открывает страницу. Неявное ожидание отключено: страница ожидает элементы
+     * явно и по событиям DOM, поэтому проверки отсутствия элемента не ждут полный таймаут.
+     * @param baseUrl адрес страницы со списком продуктов.
+     * @param listeners слушатели команд WebDriver; если заданы, драйвер оборачивается в {@link EventFiringDecorator}.
+     * @return готовый к работе WebDriver.
+     */
+    public static WebDriver createChrome(String baseUrl, WebDriverListener... listeners) {
+        return createChrome(baseUrl, null, listeners);
+    }
+
+    /**
+     * Запускает новый ChromeDriver и открывает страницу.
+     * @param baseUrl адрес страницы со списком продуктов.
+     * @param blockedResourceTypes если задано, включается режим CDP: страница считается загруженной по DOMContentLoaded,
+     *                             запросы ресурсов этих типов отклоняются, а переход завершается ожиданием
+     *                             {@link NetworkMonitor#awaitIdle}; {@code null} - обычная загрузка.
+     * @param listeners слушатели команд WebDriver; если заданы, драйвер оборачивается в {@link EventFiringDecorator}.
+     * @return готовый к работе WebDriver.
+     */
+    public static WebDriver createChrome(String baseUrl, Set<String> blockedResourceTypes, WebDriverListener... listeners) {
+        System.setProperty("webdriver.chromedriver.driver", "src/test/resources/chrome.exe");
+        ChromeDriver driver = new ChromeDriver(options(blockedResourceTypes));
+        return configure(driver, baseUrl, blockedResourceTypes, listeners);
+    }
+
+    /**
+     * Открывает страницу во вкладке нового изолированного контекста общего браузера. Запуск занимает долю времени
+     * запуска отдельного Chrome, а {@link WebDriver#quit()} закрывает контекст вместе с вкладкой.
+     * @param browser общий браузер.
+     * @param baseUrl адрес страницы со списком продуктов.
+     * @param blockedResourceTypes типы ресурсов для режима CDP, как в {@link #createChrome(String, Set, WebDriverListener...)}.
+     * @param listeners слушатели команд WebDriver.
+     * @return готовый к работе WebDriver, привязанный к вкладке контекста.
+     */
+    public static WebDriver createInContext(SharedBrowser browser, String baseUrl, Set<String> blockedResourceTypes,
+                                            WebDriverListener... listeners) {
+        SharedBrowser.Context context = browser.openContext(options(blockedResourceTypes));
+        WebDriverListener disposer = new WebDriverListener() {
+            @Override
+            public void afterQuit(WebDriver driver) {
+                browser.dispose(context.id());
+            }
+        };
+        WebDriverListener[] all = Arrays.copyOf(listeners, listeners.length + 1);
+        all[listeners.length] = disposer;
+        return configure(context.driver(), baseUrl, blockedResourceTypes, all);
+    }
+
+    /**
+     * Дешёвый сброс состояния браузера: удаляет cookies, очищает localStorage/sessionStorage
+     * и заново открывает страницу со списком продуктов. В режиме CDP переход завершается, когда сеть успокоилась.
+     * @param driver сбрасываемый WebDriver.
+     * @param baseUrl адрес страницы со списком продуктов.
+     */
+    public static void reset(WebDriver driver, String baseUrl) {
+        driver.manage().deleteAllCookies();
+        ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        open(driver, baseUrl);
+    }
+
+    /**
+     * Сброс без перехода: удаляет cookies, очищает localStorage/sessionStorage и обновляет открытую страницу
+     * на месте через {@link FoodPage#resetInPlace(int)}, дожидаясь {@link FoodPage#awaitNetworkIdle()}. Эталоном служит количество исходных строк при первом открытии
+     * страницы этим драйвером. Если открыта другая страница, обновить её не удалось или таблица отличается
+     * от исходной, страница открывается заново, как в {@link #reset(WebDriver, String)}.
+     * @param driver сбрасываемый WebDriver.
+     * @param baseUrl адрес страницы со списком продуктов.
+     */
+    public static void resetInPlace(WebDriver driver, String baseUrl) {
+        driver.manage().deleteAllCookies();
+        ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        String currentUrl = driver.getCurrentUrl();
+        Integer baselineRows = BASELINE_ROWS.get(driver);
+        if (baselineRows != null && currentUrl != null && currentUrl.split("#", 2)[0].equals(baseUrl)) {
+            try {
+                new FoodPage(driver).resetInPlace(baselineRows).awaitNetworkIdle();
+                return;
+            } catch (IllegalStateException | WebDriverException e) {
+                System.err.println("Страница будет открыта заново: " + e.getMessage());
+            }
+        }
+        open(driver, baseUrl);
+    }
+
+    private static ChromeOptions options(Set<String> blockedResourceTypes) {
+        ChromeOptions options = new ChromeOptions();
+        if (blockedResourceTypes != null) {
+            options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+        }
+        return options;
+    }
+
+    private static WebDriver configure(ChromeDriver chrome, String baseUrl, Set<String> blockedResourceTypes,
+                                       WebDriverListener... listeners) {
+        NetworkMonitor monitor = blockedResourceTypes == null ? null : NetworkMonitor.attach(chrome, blockedResourceTypes);
+        WebDriver driver = chrome;
+        if (listeners.length > 0) {
+            driver = new EventFiringDecorator<>(listeners).decorate(driver);
+        }
+        if (monitor != null) {
+            NetworkMonitor.register(driver, monitor);
+        }
+        driver.manage().window().maximize();
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        driver.manage().timeouts().scriptTimeout(TIMEOUT);
+        driver.manage().timeouts().pageLoadTimeout(TIMEOUT);
+        open(driver, baseUrl);
+        int baselineRows = new FoodPage(driver).countBaselineRows();
+        if (baselineRows >= 0) {
+            BASELINE_ROWS.put(driver, baselineRows);
+        }
+        return driver;
+    }
+
+    private static void open(WebDriver driver, String baseUrl) {
+        driver.get(baseUrl);
+        NetworkMonitor.of(driver).ifPresent(monitor -> monitor.awaitIdle(NETWORK_QUIET, TIMEOUT));
+    }
+}
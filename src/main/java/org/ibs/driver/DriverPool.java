@@ -0,0 +1,162 @@
+package org.ibs.driver;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Ограниченный пул "прогретых" сессий браузера.
+ * <p>
+ * Тест берёт сессию через {@link #lease()} и возвращает её через {@link #release(DriverSession, boolean)}.
+ * При возврате сессия сбрасывается (cookies, storage, переход на страницу) и снова попадает в пул.
+ * Сессия пересоздаётся, если тест упал, если сброс не удался или если она выдавалась {@code maxUses} раз.
+ */
+public class DriverPool implements AutoCloseable {
+    private final Supplier<WebDriver> factory;
+    private final Consumer<WebDriver> resetter;
+    private final int maxUses;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<DriverSession> idle = new ConcurrentLinkedDeque<>();
+    private final Set<DriverSession> sessions = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong recycled = new AtomicLong();
+    private final AtomicLong startupNanos = new AtomicLong();
+    private final AtomicLong resetNanos = new AtomicLong();
+
+    /**
+     * @param factory создаёт новый WebDriver с уже открытой страницей.
+     * @param resetter возвращает WebDriver в исходное состояние после теста.
+     * @param maxSize максимальное количество одновременно существующих сессий.
+     * @param maxUses количество выдач, после которого сессия пересоздаётся.
+     */
+    public DriverPool(Supplier<WebDriver> factory, Consumer<WebDriver> resetter, int maxSize, int maxUses) {
+        if (maxSize < 1 || maxUses < 1) {
+            throw new IllegalArgumentException("Размер пула и число выдач должны быть положительными");
+        }
+        this.factory = factory;
+        this.resetter = resetter;
+        this.maxUses = maxUses;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Выдаёт сессию из пула или запускает новую, если свободных нет. Блокируется, пока пул исчерпан.
+     */
+    public DriverSession lease() throws InterruptedException {
+        permits.acquire();
+        try {
+            leases.incrementAndGet();
+            DriverSession session = idle.pollFirst();
+            if (session != null) {
+                hits.incrementAndGet();
+            } else {
+                session = start();
+            }
+            session.onLease();
+            return session;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Возвращает сессию в пул.
+     * @param session ранее выданная сессия.
+     * @param failed признак того, что тест завершился ошибкой; такая сессия не переиспользуется.
+     */
+    public void release(DriverSession session, boolean failed) {
+        try {
+            if (failed || session.getUses() >= maxUses) {
+                discard(session);
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                resetter.accept(session.getDriver());
+                idle.offerFirst(session);
+            } catch (RuntimeException e) {
+                discard(session);
+            } finally {
+                resetNanos.addAndGet(System.nanoTime() - start);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    public Stats stats() {
+        long hitCount = hits.get();
+        long misses = leases.get() - hitCount;
+        long avgStartup = misses == 0 ? 0 : startupNanos.get() / misses;
+        long saved = hitCount * avgStartup - resetNanos.get();
+        return new Stats(leases.get(), hitCount, recycled.get(),
+                TimeUnit.NANOSECONDS.toMillis(avgStartup), TimeUnit.NANOSECONDS.toMillis(saved));
+    }
+
+    /**
+     * Закрывает все сессии пула.
+     */
+    @Override
+    public void close() {
+        for (DriverSession session : sessions) {
+            quit(session);
+        }
+        idle.clear();
+    }
+
+    private DriverSession start() {
+        long start = System.nanoTime();
+        WebDriver driver = factory.get();
+        long elapsed = System.nanoTime() - start;
+        startupNanos.addAndGet(elapsed);
+        DriverSession session = new DriverSession(driver, elapsed);
+        sessions.add(session);
+        return session;
+    }
+
+    private void discard(DriverSession session) {
+        recycled.incrementAndGet();
+        quit(session);
+    }
+
+    private void quit(DriverSession session) {
+        sessions.remove(session);
+        try {
+            session.getDriver().quit();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Статистика пула.
+     * @param leases сколько раз сессия выдавалась тестам.
+     * @param hits сколько выдач обошлись без запуска браузера.
+     * @param recycled сколько сессий было закрыто и пересоздано.
+     * @param avgStartupMillis среднее время запуска браузера.
+     * @param savedMillis оценка сэкономленного времени с учётом затрат на сброс.
+     */
+    public record Stats(long leases, long hits, long recycled, long avgStartupMillis, long savedMillis) {
+
+        public double hitRate() {
+            return leases == 0 ? 0 : (double) hits / leases;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Пул WebDriver: выдач %d, попаданий %d (%.0f%%), пересоздано %d, "
+                            + "запуск браузера в среднем %d мс, сэкономлено ~%d мс",
+                    leases, hits, hitRate() * 100, recycled, avgStartupMillis, savedMillis);
+        }
+    }
+}
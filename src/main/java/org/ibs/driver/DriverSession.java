@@ -0,0 +1,52 @@
+package org.ibs.driver;
+
+import org.ibs.pages.FoodPage;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Сессия браузера, которая хранится в {@link DriverPool} и выдаётся тестам во временное пользование.
+ */
+public class DriverSession {
+    private final WebDriver driver;
+    private final long startupNanos;
+    private int uses;
+    private FoodPage foodPage;
+
+    DriverSession(WebDriver driver, long startupNanos) {
+        this.driver = driver;
+        this.startupNanos = startupNanos;
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    /**
+     * Возвращает страницу Список товаров, привязанную к этой сессии. В пределах одной выдачи объект один и тот же.
+     */
+    public FoodPage getFoodPage() {
+        if (foodPage == null) {
+            foodPage = new FoodPage(driver);
+        }
+        return foodPage;
+    }
+
+    /**
+     * Время запуска браузера для этой сессии в наносекундах.
+     */
+    public long getStartupNanos() {
+        return startupNanos;
+    }
+
+    /**
+     * Количество выдач этой сессии тестам.
+     */
+    public int getUses() {
+        return uses;
+    }
+
+    void onLease() {
+        uses++;
+        foodPage = null;
+    }
+}
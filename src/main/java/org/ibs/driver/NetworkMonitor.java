@@ -0,0 +1,129 @@
+package org.ibs.driver;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Наблюдение за сетью вкладки через Chrome DevTools Protocol.
+ * <p>
+ * Запросы ресурсов заданных типов ({@code Image}, {@code Stylesheet}, {@code Font}, {@code Media} и т.д.)
+ * отклоняются до отправки ({@code Fetch.requestPaused} -> {@code Fetch.failRequest}), а по событиям
+ * {@code Network.requestWillBeSent}/{@code loadingFinished}/{@code loadingFailed} отслеживаются незавершённые запросы.
+ * Команды и события CDP задаются по имени, без привязки к версии Chrome.
+ */
+public class NetworkMonitor {
+    private static final Map<WebDriver, NetworkMonitor> MONITORS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Set<String> inFlight = new HashSet<>();
+    private final Object lock = new Object();
+    private long lastActivityNanos = System.nanoTime();
+
+    private NetworkMonitor() {
+    }
+
+    /**
+     * Подключается к DevTools текущей вкладки драйвера и включает блокировку и наблюдение. Сессия CDP привязывается
+     * к вкладке явно: в общем браузере {@link SharedBrowser} есть вкладки других контекстов.
+     * @param driver драйвер Chrome, поддерживающий {@link HasDevTools}, переключённый на наблюдаемую вкладку.
+     * @param blockedResourceTypes типы ресурсов CDP {@code Network.ResourceType}, запросы которых отклоняются.
+     */
+    public static NetworkMonitor attach(WebDriver driver, Set<String> blockedResourceTypes) {
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne(driver.getWindowHandle());
+        NetworkMonitor monitor = new NetworkMonitor();
+
+        devTools.addListener(event("Network.requestWillBeSent"), params -> monitor.started(params.get("requestId")));
+        devTools.addListener(event("Network.loadingFinished"), params -> monitor.finished(params.get("requestId")));
+        devTools.addListener(event("Network.loadingFailed"), params -> monitor.finished(params.get("requestId")));
+        devTools.send(new Command<Void>("Network.enable", Map.of()));
+
+        if (!blockedResourceTypes.isEmpty()) {
+            List<Map<String, Object>> patterns = new ArrayList<>();
+            for (String type : blockedResourceTypes) {
+                patterns.add(Map.of("urlPattern", "*", "resourceType", type, "requestStage", "Request"));
+            }
+            devTools.addListener(event("Fetch.requestPaused"), params -> devTools.send(new Command<Void>(
+                    "Fetch.failRequest", Map.of("requestId", params.get("requestId"), "errorReason", "BlockedByClient"))));
+            devTools.send(new Command<Void>("Fetch.enable", Map.of("patterns", patterns)));
+        }
+        return monitor;
+    }
+
+    /**
+     * Связывает монитор с драйвером, через который с ним работают страницы (например, с обёрткой
+     * {@link org.openqa.selenium.support.events.EventFiringDecorator}).
+     */
+    static void register(WebDriver driver, NetworkMonitor monitor) {
+        MONITORS.put(driver, monitor);
+    }
+
+    /**
+     * Монитор сети, подключённый к драйверу при создании, если режим CDP включён.
+     */
+    public static Optional<NetworkMonitor> of(WebDriver driver) {
+        return Optional.ofNullable(MONITORS.get(driver));
+    }
+
+    /**
+     * Ожидает, пока у вкладки не останется незавершённых запросов в течение {@code quiet}.
+     * @throws TimeoutException если сеть не успокоилась за {@code timeout}.
+     */
+    public void awaitIdle(Duration quiet, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (lock) {
+            while (true) {
+                long now = System.nanoTime();
+                long quietLeft = lastActivityNanos + quiet.toNanos() - now;
+                if (inFlight.isEmpty() && quietLeft <= 0) {
+                    return;
+                }
+                if (now >= deadline) {
+                    throw new TimeoutException("Сеть не успокоилась за " + timeout.toMillis() + " мс, незавершённых запросов: "
+                            + inFlight.size());
+                }
+                long waitNanos = inFlight.isEmpty() ? Math.min(quietLeft, deadline - now) : deadline - now;
+                try {
+                    lock.wait(Math.max(1, waitNanos / 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TimeoutException("Ожидание сети прервано", e);
+                }
+            }
+        }
+    }
+
+    private void started(Object requestId) {
+        synchronized (lock) {
+            inFlight.add(String.valueOf(requestId));
+            lastActivityNanos = System.nanoTime();
+            lock.notifyAll();
+        }
+    }
+
+    private void finished(Object requestId) {
+        synchronized (lock) {
+            inFlight.remove(String.valueOf(requestId));
+            lastActivityNanos = System.nanoTime();
+            lock.notifyAll();
+        }
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+}
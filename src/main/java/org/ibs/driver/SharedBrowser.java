@@ -0,0 +1,98 @@
+package org.ibs.driver;
+
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.Map;
+
+/**
+ * Один процесс Chrome, в котором тесты получают изолированные контексты браузера
+ * (отдельные cookies, localStorage и кеш) вместо отдельных процессов.
+ * <p>
+ * Контекст создаётся командами CDP {@code Target.createBrowserContext} и {@code Target.createTarget}, отправленными
+ * на уровне браузера. Для управления вкладкой контекста запускается лёгкая сессия ChromeDriver, подключённая
+ * к уже работающему браузеру через {@code debuggerAddress}, поэтому вкладки разных тестов управляются независимо
+ * и параллельно.
+ */
+public class SharedBrowser implements AutoCloseable {
+    private final ChromeDriver browser;
+    private final DevTools devTools;
+    private final String debuggerAddress;
+
+    /**
+     * Вкладка в собственном контексте браузера.
+     * @param id идентификатор контекста CDP.
+     * @param driver сессия ChromeDriver, переключённая на вкладку контекста.
+     */
+    public record Context(String id, ChromeDriver driver) {
+    }
+
+    private SharedBrowser(ChromeDriver browser) {
+        this.browser = browser;
+        this.devTools = browser.getDevTools();
+        Map<?, ?> chromeOptions = (Map<?, ?>) browser.getCapabilities().getCapability("goog:chromeOptions");
+        this.debuggerAddress = String.valueOf(chromeOptions.get("debuggerAddress"));
+    }
+
+    /**
+     * Запускает общий браузер.
+     */
+    public static SharedBrowser start() {
+        System.setProperty("webdriver.chromedriver.driver", "src/test/resources/chrome.exe");
+        return new SharedBrowser(new ChromeDriver());
+    }
+
+    /**
+     * Создаёт новый контекст с пустой вкладкой и подключает к ней сессию ChromeDriver.
+     * @param options настройки подключаемой сессии, например стратегия загрузки страницы.
+     */
+    public Context openContext(ChromeOptions options) {
+        String contextId;
+        String targetId;
+        synchronized (devTools) {
+            contextId = (String) send("Target.createBrowserContext", Map.of("disposeOnDetach", false))
+                    .get("browserContextId");
+            targetId = (String) send("Target.createTarget", Map.of("url", "about:blank", "browserContextId", contextId,
+                    "newWindow", true)).get("targetId");
+        }
+        options.setExperimentalOption("debuggerAddress", debuggerAddress);
+        ChromeDriver driver = new ChromeDriver(options);
+        try {
+            String handle = driver.getWindowHandles().stream()
+                    .filter(candidate -> candidate.toUpperCase().endsWith(targetId.toUpperCase()))
+                    .findFirst()
+                    .orElseThrow(() -> new NoSuchWindowException("Не найдена вкладка контекста " + contextId));
+            driver.switchTo().window(handle);
+        } catch (RuntimeException e) {
+            driver.quit();
+            dispose(contextId);
+            throw e;
+        }
+        return new Context(contextId, driver);
+    }
+
+    /**
+     * Закрывает контекст вместе со всеми его вкладками.
+     */
+    public void dispose(String contextId) {
+        synchronized (devTools) {
+            send("Target.disposeBrowserContext", Map.of("browserContextId", contextId));
+        }
+    }
+
+    /**
+     * Закрывает общий браузер вместе со всеми контекстами.
+     */
+    @Override
+    public void close() {
+        browser.quit();
+    }
+
+    private Map<String, Object> send(String method, Map<String, Object> params) {
+        return devTools.send(new Command<Map<String, Object>>(method, params, input -> input.read(Json.MAP_TYPE)));
+    }
+}
@@ -0,0 +1,103 @@
+package org.ibs.fixtures;
+
+import org.ibs.api.FoodApiClient;
+import org.ibs.db.FoodRepository;
+import org.ibs.model.FoodRow;
+import org.ibs.model.FoodType;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Подготовка данных в обход браузера с тем же текучим интерфейсом, что у {@link org.ibs.pages.FoodPage}.
+ * <p>
+ * {@link #clickSaveBtn()} только ставит товар в очередь, {@link #apply()} создаёт все накопленные товары разом:
+ * пакетной вставкой JDBC или одновременными запросами {@code POST /api/food}.
+ * <pre>{@code
+ * FoodFixtures.overJdbc(repository)
+ *         .clickAddBtn().fillNameField("Виноград").setType("Фрукт").setExotic(false).clickSaveBtn()
+ *         .apply();
+ * }</pre>
+ */
+public class FoodFixtures {
+    private final Writer writer;
+    private final List<FoodRow> pending = new ArrayList<>();
+    private String name;
+    private FoodType type;
+    private boolean exotic;
+
+    private FoodFixtures(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Товары добавляются через HTTP API приложения.
+     */
+    public static FoodFixtures overHttp(FoodApiClient client) {
+        return new FoodFixtures(client::addAll);
+    }
+
+    /**
+     * Товары добавляются пакетной вставкой в таблицу FOOD.
+     */
+    public static FoodFixtures overJdbc(FoodRepository repository) {
+        return new FoodFixtures(repository::insertAll);
+    }
+
+    /**
+     * Начинает описание нового товара. Как и в форме на странице, по умолчанию тип "Овощ", товар не экзотический.
+     */
+    public FoodFixtures clickAddBtn(){
+        name = null;
+        type = FoodType.VEGETABLE;
+        exotic = false;
+        return this;
+    }
+
+    public FoodFixtures fillNameField(String name){
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * @param type название типа на странице, например "Фрукт".
+     */
+    public FoodFixtures setType(String type){
+        this.type = FoodType.fromTitle(type);
+        return this;
+    }
+
+    public FoodFixtures setExotic(boolean exotic){
+        this.exotic = exotic;
+        return this;
+    }
+
+    /**
+     * Ставит описанный товар в очередь на создание.
+     */
+    public FoodFixtures clickSaveBtn(){
+        if (name == null || type == null) {
+            throw new IllegalStateException("Перед clickSaveBtn() нужно вызвать clickAddBtn() и fillNameField()");
+        }
+        pending.add(new FoodRow(name, type, exotic));
+        name = null;
+        return this;
+    }
+
+    /**
+     * Создаёт все товары из очереди.
+     * @return созданные товары.
+     */
+    public List<FoodRow> apply() throws SQLException, IOException {
+        List<FoodRow> rows = List.copyOf(pending);
+        pending.clear();
+        writer.write(rows);
+        return rows;
+    }
+
+    private interface Writer {
+        void write(List<FoodRow> rows) throws SQLException, IOException;
+    }
+}
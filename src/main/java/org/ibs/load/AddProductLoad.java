@@ -0,0 +1,169 @@
+package org.ibs.load;
+
+import org.ibs.db.FoodRepository;
+import org.ibs.metrics.LatencyHistogram;
+import org.ibs.model.FoodRow;
+import org.ibs.model.FoodType;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Нагрузочный прогон сценария добавления товара.
+ * <p>
+ * Каждый пользователь работает в своём потоке: на JDK 21 и новее - в виртуальном, на более старых - в обычном
+ * потоке из кеширующего пула. Пользователи подключаются равномерно в течение {@link LoadProfile#rampUp()} и добавляют
+ * товары без пауз до окончания {@link LoadProfile#duration()}. Задержка каждого добавления записывается
+ * в {@link LatencyHistogram}, а после прогона одним запросом подсчитываются строки с повторяющимся наименованием.
+ * Пользователь не повторяет собственные наименования, поэтому повторы возникают только при гонке разных пользователей.
+ */
+public class AddProductLoad {
+    private static final long CONTEST_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Supplier<? extends Action> users;
+    private final FoodRepository repository;
+
+    /**
+     * Способ добавления одного товара, например через HTTP API или через {@link org.ibs.pages.FoodPage}.
+     * Каждый пользователь получает свой экземпляр и закрывает его один раз после своего последнего добавления,
+     * поэтому ресурсы пользователя, например сессия браузера, не берутся заново на каждое добавление.
+     */
+    @FunctionalInterface
+    public interface Action extends AutoCloseable {
+        void add(FoodRow row) throws Exception;
+
+        @Override
+        default void close() throws Exception {
+        }
+    }
+
+    /**
+     * @param users создаёт способ добавления для одного пользователя; вызывается из потока пользователя.
+     * @param repository доступ к таблице FOOD для подсчёта повторяющихся наименований.
+     */
+    public AddProductLoad(Supplier<? extends Action> users, FoodRepository repository) {
+        this.users = users;
+        this.repository = repository;
+    }
+
+    /**
+     * Выполняет прогон и дожидается завершения всех пользователей.
+     * @param profile параметры нагрузки.
+     * @param suffix суффикс наименований товаров, по которому прогон находит свои строки,
+     *               например {@link org.ibs.utils.WorkerNamespace#suffix()}.
+     */
+    public LoadReport run(LoadProfile profile, String suffix) throws InterruptedException, SQLException {
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder requests = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        long end = start + profile.rampUp().toNanos() + profile.duration().toNanos();
+        ExecutorService executor = newUserExecutor();
+        try {
+            for (int user = 0; user < profile.users(); user++) {
+                long startAt = start + profile.rampUp().toNanos() * user / profile.users();
+                int id = user;
+                executor.execute(() -> {
+                    if (!sleepUntil(startAt)) {
+                        return;
+                    }
+                    ContestedNames contested = new ContestedNames(start, suffix);
+                    try (Action action = users.get()) {
+                        for (long n = 0; System.nanoTime() < end && !Thread.currentThread().isInterrupted(); n++) {
+                            FoodRow row = row(profile, id, n, contested, suffix);
+                            long before = System.nanoTime();
+                            try {
+                                action.add(row);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            } catch (Exception e) {
+                                errors.increment();
+                            }
+                            latency.recordNanos(System.nanoTime() - before);
+                            requests.increment();
+                        }
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long grace = Math.max(0, end - System.nanoTime()) + TimeUnit.MINUTES.toNanos(1);
+        if (!executor.awaitTermination(grace, TimeUnit.NANOSECONDS)) {
+            executor.shutdownNow();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return new LoadReport(requests.sum(), errors.sum(), elapsed,
+                latency.percentileMillis(50), latency.percentileMillis(95), latency.percentileMillis(99),
+                latency.maxMillis(), repository.countDuplicateRows("%" + suffix));
+    }
+
+    private static FoodRow row(LoadProfile profile, int user, long n, ContestedNames contested, String suffix) {
+        FoodType type = (user + n) % 2 == 0 ? FoodType.VEGETABLE : FoodType.FRUIT;
+        boolean exotic = n % 3 == 0;
+        if (profile.contestedEvery() > 0 && n % profile.contestedEvery() == 0) {
+            return new FoodRow(contested.next(), FoodType.VEGETABLE, false);
+        }
+        return new FoodRow("Нагрузка " + user + "-" + n + suffix, type, exotic);
+    }
+
+    /**
+     * Общие для пользователей наименования одного пользователя, например {@code "Гонка 42-1"}: второе по счёту
+     * добавление пользователя в окне 42. Все пользователи в одном окне используют одну последовательность,
+     * поэтому совпадают наименования только разных пользователей, а сам пользователь их не повторяет:
+     * повторяющиеся строки FOOD означают гонку между пользователями.
+     */
+    private static final class ContestedNames {
+        private final long start;
+        private final String suffix;
+        private long window = -1;
+        private int sequence;
+
+        ContestedNames(long start, String suffix) {
+            this.start = start;
+            this.suffix = suffix;
+        }
+
+        String next() {
+            long current = (System.nanoTime() - start) / CONTEST_WINDOW_NANOS;
+            sequence = current == window ? sequence + 1 : 0;
+            window = current;
+            return "Гонка " + window + "-" + sequence + suffix;
+        }
+    }
+
+    private static boolean sleepUntil(long nanoTime) {
+        try {
+            long delay = nanoTime - System.nanoTime();
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Виртуальные потоки доступны начиная с JDK 21, а проект собирается под 18, поэтому фабрика ищется отражением.
+     */
+    private static ExecutorService newUserExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "food-load");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.ibs.load;
+
+import java.time.Duration;
+
+/**
+ * Параметры нагрузочного прогона добавления товаров.
+ * @param users количество одновременно работающих пользователей.
+ * @param rampUp время, за которое пользователи подключаются равномерно один за другим.
+ * @param duration время работы всех пользователей после подключения последнего.
+ * @param contestedEvery каждый n-й товар пользователя получает наименование, общее для всех пользователей
+ *                       в пределах 100 мс, чтобы воспроизвести гонку за одно наименование; 0 - без гонки.
+ */
+public record LoadProfile(int users, Duration rampUp, Duration duration, int contestedEvery) {
+
+    public LoadProfile {
+        if (users < 1 || rampUp.isNegative() || duration.isNegative() || duration.isZero() || contestedEvery < 0) {
+            throw new IllegalArgumentException("Некорректный профиль нагрузки: " + users + " пользователей, "
+                    + rampUp + " подключение, " + duration + " работа, гонка каждые " + contestedEvery);
+        }
+    }
+
+    /**
+     * Профиль из параметров запуска {@code food.load.users}, {@code food.load.rampUp} и {@code food.load.duration}
+     * (в секундах, по умолчанию 10 и 60) и {@code food.load.contested} (по умолчанию 10).
+     */
+    public static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger("food.load.users", 50),
+                Duration.ofSeconds(Long.getLong("food.load.rampUp", 10)),
+                Duration.ofSeconds(Long.getLong("food.load.duration", 60)),
+                Integer.getInteger("food.load.contested", 10));
+    }
+}
@@ -0,0 +1,35 @@
+package org.ibs.load;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Итоги нагрузочного прогона.
+ * @param requests количество выполненных добавлений, включая ошибочные.
+ * @param errors количество добавлений, завершившихся ошибкой.
+ * @param elapsed фактическая длительность прогона.
+ * @param p50 медиана задержки добавления, мс.
+ * @param p95 95-й процентиль задержки, мс.
+ * @param p99 99-й процентиль задержки, мс.
+ * @param max максимальная задержка, мс.
+ * @param duplicateRows количество лишних строк FOOD с повторяющимся наименованием после прогона; наименования
+ *                      повторяются только у разных пользователей, поэтому это число добавлений, проигравших гонку.
+ */
+public record LoadReport(long requests, long errors, Duration elapsed,
+                         double p50, double p95, double p99, double max, int duplicateRows) {
+
+    /**
+     * Пропускная способность, добавлений в секунду.
+     */
+    public double throughput() {
+        return elapsed.isZero() ? 0 : requests * 1000.0 / elapsed.toMillis();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "Нагрузка: %d добавлений (%d ошибок) за %d с, %.1f/с; задержка p50 %.1f мс, p95 %.1f мс, p99 %.1f мс, "
+                        + "max %.1f мс; повторяющихся строк FOOD_NAME: %d",
+                requests, errors, elapsed.toSeconds(), throughput(), p50, p95, p99, max, duplicateRows);
+    }
+}
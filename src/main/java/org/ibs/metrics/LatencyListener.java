@@ -0,0 +1,120 @@
+package org.ibs.metrics;
+
+import org.ibs.pages.FoodPage;
+import org.ibs.utils.Locators;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Слушатель {@link org.openqa.selenium.support.events.EventFiringDecorator}, который измеряет задержку каждой
+ * команды WebDriver и записывает её в {@link LatencyRecorder}.
+ * <p>
+ * Запись помечается методом {@link FoodPage}, из которого выполнена команда (определяется по стеку вызовов;
+ * команды чтения потока строк при его потреблении помечаются {@code streamRows}), и константой
+ * {@link Locators.FoodPage}: для поиска элемента - по переданному локатору, для команд элемента - по локатору,
+ * которым элемент был найден.
+ */
+public class LatencyListener implements WebDriverListener {
+    private static final String NONE = "-";
+    private static final Map<String, String> LOCATOR_NAMES = locatorNames();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String STREAM_STEP = "streamRows";
+    private static final String STREAM_CLASS = FoodPage.class.getPackageName() + ".TableRowSpliterator";
+
+    private final LatencyRecorder recorder;
+    private final ThreadLocal<Deque<Long>> starts = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Map<WebElement, String> elementLocators = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public LatencyListener(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        starts.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        String locator = record(target, method, args);
+        if (result instanceof WebElement element && !NONE.equals(locator)) {
+            elementLocators.put(element, locator);
+        }
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        record(target, method, args);
+    }
+
+    private String record(Object target, Method method, Object[] args) {
+        Deque<Long> stack = starts.get();
+        if (stack.isEmpty()) {
+            return NONE;
+        }
+        long elapsed = System.nanoTime() - stack.pop();
+        String locator = locator(target, args);
+        recorder.record(currentStep(), locator, method.getName(), elapsed);
+        return locator;
+    }
+
+    private String locator(Object target, Object[] args) {
+        if (args != null) {
+            for (Object arg : args) {
+                if (arg instanceof By by) {
+                    return LOCATOR_NAMES.getOrDefault(by.toString(), by.toString());
+                }
+            }
+        }
+        if (target instanceof WebElement element) {
+            return elementLocators.getOrDefault(element, NONE);
+        }
+        return NONE;
+    }
+
+    /**
+     * Самый внешний вызов метода {@link FoodPage} или чтения потока строк в стеке текущего потока.
+     * Поток {@link FoodPage#streamRows()} читается уже после возврата из {@link FoodPage}, поэтому его команды
+     * распознаются по кадрам {@code TableRowSpliterator}.
+     */
+    private static String currentStep() {
+        return STACK_WALKER.walk(frames -> frames
+                .map(LatencyListener::step)
+                .filter(Objects::nonNull)
+                .reduce((inner, outer) -> outer)
+                .orElse(NONE));
+    }
+
+    private static String step(StackWalker.StackFrame frame) {
+        if (frame.getClassName().equals(FoodPage.class.getName())) {
+            return frame.getMethodName();
+        }
+        return frame.getClassName().equals(STREAM_CLASS) ? STREAM_STEP : null;
+    }
+
+    private static Map<String, String> locatorNames() {
+        Map<String, String> names = new HashMap<>();
+        for (Field field : Locators.FoodPage.class.getFields()) {
+            if (By.class.isAssignableFrom(field.getType())) {
+                try {
+                    names.put(field.get(null).toString(), field.getName());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return names;
+    }
+}
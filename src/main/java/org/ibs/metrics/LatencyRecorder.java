@@ -0,0 +1,80 @@
+package org.ibs.metrics;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Гистограммы задержек команд WebDriver, сгруппированные по шагу страницы, локатору и команде.
+ */
+public class LatencyRecorder {
+    private final Map<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Записывает длительность команды.
+     * @param step метод {@link org.ibs.pages.FoodPage}, из которого выполнена команда, или {@code "-"}.
+     * @param locator имя константы {@link org.ibs.utils.Locators.FoodPage} или {@code "-"}.
+     * @param command имя команды WebDriver, например {@code "findElement"}.
+     * @param nanos длительность в наносекундах.
+     */
+    public void record(String step, String locator, String command, long nanos) {
+        histograms.computeIfAbsent(new Key(step, locator, command), key -> new LatencyHistogram()).recordNanos(nanos);
+    }
+
+    /**
+     * Сводка по всем группам: количество, p50/p95/p99, среднее и максимум в миллисекундах.
+     */
+    public List<Map<String, Object>> summary() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<Key, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("step", entry.getKey().step());
+            row.put("locator", entry.getKey().locator());
+            row.put("command", entry.getKey().command());
+            row.put("count", histogram.getCount());
+            row.put("p50", histogram.percentileMillis(50));
+            row.put("p95", histogram.percentileMillis(95));
+            row.put("p99", histogram.percentileMillis(99));
+            row.put("mean", histogram.meanMillis());
+            row.put("max", histogram.maxMillis());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Записывает сводку в JSON-файл.
+     */
+    public void export(Path file) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", System.currentTimeMillis());
+        report.put("unit", "ms");
+        report.put("latencies", summary());
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, new Json().toJson(report), StandardCharsets.UTF_8);
+    }
+
+    private record Key(String step, String locator, String command) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int result = step.compareTo(other.step);
+            if (result == 0) {
+                result = locator.compareTo(other.locator);
+            }
+            return result == 0 ? command.compareTo(other.command) : result;
+        }
+    }
+}
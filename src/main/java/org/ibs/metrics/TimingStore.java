@@ -0,0 +1,123 @@
+package org.ibs.metrics;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Бюджеты ожиданий, выученные по наблюдаемым длительностям действий страницы.
+ * <p>
+ * Для каждого действия (например {@code "clickAddBtn"} - ожидание {@code Locators.FoodPage.BTN_ADD}) успешные
+ * ожидания записываются в {@link LatencyHistogram}. Бюджет - p99 × {@code food.waits.factor} (по умолчанию 3)
+ * в пределах от {@link #MIN_BUDGET} до {@link #MAX_BUDGET}. Пока измерений меньше {@value #MIN_SAMPLES}, используется
+ * p99 прошлых запусков из файла {@code food.waits.file}, а без истории - {@link #MAX_BUDGET}.
+ * Если текущий p99 в {@value #DRIFT_FACTOR} раза превышает p99 прошлых запусков, выводится предупреждение.
+ */
+public class TimingStore {
+    public static final Duration MIN_BUDGET = Duration.ofMillis(500);
+    public static final Duration MAX_BUDGET = Duration.ofSeconds(10);
+    private static final int MIN_SAMPLES = 20;
+    private static final double DRIFT_FACTOR = 2.0;
+    private static final double SMOOTHING = 0.5;
+    private static final TimingStore SHARED = new TimingStore(
+            Path.of(System.getProperty("food.waits.file", "food-waits.properties")),
+            Double.parseDouble(System.getProperty("food.waits.factor", "3")));
+
+    private final Path file;
+    private final double factor;
+    private final Map<String, Double> baseline = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> observed = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> drifted = new ConcurrentHashMap<>();
+
+    /**
+     * @param file файл с p99 прошлых запусков; читается сразу, если существует.
+     * @param factor запас, на который умножается p99.
+     */
+    public TimingStore(Path file, double factor) {
+        this.file = file;
+        this.factor = factor;
+        if (Files.exists(file)) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+                for (String action : properties.stringPropertyNames()) {
+                    baseline.put(action, Double.parseDouble(properties.getProperty(action)));
+                }
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("Не удалось прочитать бюджеты ожиданий " + file + ": " + e);
+            }
+        }
+    }
+
+    /**
+     * Общее хранилище запуска тестов.
+     */
+    public static TimingStore shared() {
+        return SHARED;
+    }
+
+    /**
+     * Записывает длительность успешного ожидания.
+     */
+    public void record(String action, Duration duration) {
+        LatencyHistogram histogram = observed.computeIfAbsent(action, key -> new LatencyHistogram());
+        histogram.recordNanos(duration.toNanos());
+        Double previous = baseline.get(action);
+        if (previous != null && histogram.getCount() >= MIN_SAMPLES && histogram.getCount() % MIN_SAMPLES == 0) {
+            double p99 = histogram.percentileMillis(99);
+            if (p99 > previous * DRIFT_FACTOR && drifted.putIfAbsent(action, Boolean.TRUE) == null) {
+                System.err.printf("Внимание: задержка %s выросла: p99 %.0f мс, в прошлых запусках %.0f мс%n",
+                        action, p99, previous);
+            }
+        }
+    }
+
+    /**
+     * Время, которое стоит ждать действие.
+     */
+    public Duration budget(String action) {
+        LatencyHistogram histogram = observed.get(action);
+        Double p99;
+        if (histogram != null && histogram.getCount() >= MIN_SAMPLES) {
+            p99 = histogram.percentileMillis(99);
+        } else {
+            p99 = baseline.get(action);
+        }
+        if (p99 == null) {
+            return MAX_BUDGET;
+        }
+        long millis = Math.round(p99 * factor);
+        return Duration.ofMillis(Math.max(MIN_BUDGET.toMillis(), Math.min(MAX_BUDGET.toMillis(), millis)));
+    }
+
+    /**
+     * Сохраняет p99 действий с достаточным числом измерений, сглаживая их с прошлыми значениями.
+     */
+    public void save() throws IOException {
+        Properties properties = new Properties();
+        baseline.forEach((action, p99) -> properties.setProperty(action, Double.toString(p99)));
+        observed.forEach((action, histogram) -> {
+            if (histogram.getCount() >= MIN_SAMPLES) {
+                double p99 = histogram.percentileMillis(99);
+                Double previous = baseline.get(action);
+                double value = previous == null ? p99 : previous * (1 - SMOOTHING) + p99 * SMOOTHING;
+                properties.setProperty(action, Double.toString(value));
+            }
+        });
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "p99 ожиданий страницы, мс");
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
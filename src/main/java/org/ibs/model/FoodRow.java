@@ -0,0 +1,10 @@
+package org.ibs.model;
+
+/**
+ * Строка списка товаров.
+ * @param name наименование товара.
+ * @param type тип товара.
+ * @param exotic признак экзотичности.
+ */
+public record FoodRow(String name, FoodType type, boolean exotic) {
+}
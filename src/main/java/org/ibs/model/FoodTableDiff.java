@@ -0,0 +1,122 @@
+package org.ibs.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Расхождения между строками таблицы FOOD и строками таблицы товаров на странице.
+ * <p>
+ * Обе стороны сравниваются как {@link FoodRow}: при чтении из базы {@code VEGETABLE}/{@code FRUIT} и
+ * {@code FOOD_EXOTIC} 0/1 приводятся к {@link FoodType} и {@code boolean} в {@link org.ibs.db.FoodRepository},
+ * а "Овощ"/"Фрукт" и "false"/"true" со страницы - в {@link org.ibs.pages.FoodPage}. Нераспознанный тип с любой стороны
+ * становится {@link FoodType#UNKNOWN} и попадает в расхождения: такие строки не совпадают ни с какой строкой,
+ * в том числе с другой строкой {@link FoodType#UNKNOWN}, так как исходный текст типа не сохраняется.
+ * Сравнение выполняется за один проход по каждой стороне с хешированием строк, повторяющиеся строки
+ * учитываются с кратностью.
+ *
+ * @param missing строки базы, которых нет на странице.
+ * @param extra строки страницы, которых нет в базе.
+ * @param mismatched строки с одинаковым наименованием и разными типом или экзотичностью.
+ */
+public record FoodTableDiff(List<FoodRow> missing, List<FoodRow> extra, List<Mismatch> mismatched) {
+
+    /**
+     * Строка с совпадающим наименованием и различающимися полями.
+     * @param database строка в базе.
+     * @param ui строка на странице.
+     */
+    public record Mismatch(FoodRow database, FoodRow ui) {
+    }
+
+    public FoodTableDiff {
+        missing = List.copyOf(missing);
+        extra = List.copyOf(extra);
+        mismatched = List.copyOf(mismatched);
+    }
+
+    /**
+     * Сравнивает строки базы со строками страницы.
+     * @param database строки таблицы FOOD; перебираются дважды.
+     * @param ui строки таблицы товаров на странице; перебираются один раз, поэтому подходит и поток строк.
+     */
+    public static FoodTableDiff compare(Collection<FoodRow> database, Iterable<FoodRow> ui) {
+        Map<FoodRow, Integer> unmatchedDatabase = new HashMap<>();
+        for (FoodRow row : database) {
+            if (isComparable(row)) {
+                unmatchedDatabase.merge(row, 1, Integer::sum);
+            }
+        }
+        List<FoodRow> unmatchedUi = new ArrayList<>();
+        for (FoodRow row : ui) {
+            if (!isComparable(row) || !take(unmatchedDatabase, row)) {
+                unmatchedUi.add(row);
+            }
+        }
+
+        Map<String, Deque<FoodRow>> databaseByName = new LinkedHashMap<>();
+        for (FoodRow row : database) {
+            if (!isComparable(row) || take(unmatchedDatabase, row)) {
+                databaseByName.computeIfAbsent(row.name(), name -> new ArrayDeque<>(1)).add(row);
+            }
+        }
+        List<FoodRow> extra = new ArrayList<>();
+        List<Mismatch> mismatched = new ArrayList<>();
+        for (FoodRow row : unmatchedUi) {
+            Deque<FoodRow> sameName = databaseByName.get(row.name());
+            FoodRow databaseRow = sameName == null ? null : sameName.pollFirst();
+            if (databaseRow == null) {
+                extra.add(row);
+            } else {
+                mismatched.add(new Mismatch(databaseRow, row));
+            }
+        }
+        List<FoodRow> missing = new ArrayList<>();
+        databaseByName.values().forEach(missing::addAll);
+        return new FoodTableDiff(missing, extra, mismatched);
+    }
+
+    /**
+     * Строки с нераспознанным типом не сопоставляются: {@link FoodType#UNKNOWN} с разных сторон может означать разные типы.
+     */
+    private static boolean isComparable(FoodRow row) {
+        return row.type() != FoodType.UNKNOWN;
+    }
+
+    /**
+     * Уменьшает кратность строки, если она есть среди ещё не сопоставленных.
+     */
+    private static boolean take(Map<FoodRow, Integer> counts, FoodRow row) {
+        Integer count = counts.get(row);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            counts.remove(row);
+        } else {
+            counts.put(row, count - 1);
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return missing.isEmpty() && extra.isEmpty() && mismatched.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "Расхождений нет";
+        }
+        StringBuilder text = new StringBuilder("Расхождения UI и БД:");
+        missing.forEach(row -> text.append("\n  нет на странице: ").append(row));
+        extra.forEach(row -> text.append("\n  нет в базе: ").append(row));
+        mismatched.forEach(pair -> text.append("\n  различаются: ").append(pair.database()).append(" / ").append(pair.ui()));
+        return text.toString();
+    }
+}
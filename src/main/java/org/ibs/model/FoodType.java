@@ -0,0 +1,63 @@
+package org.ibs.model;
+
+/**
+ * Тип товара. Хранит код, который используется в таблице FOOD, и название, которое отображается на странице.
+ */
+public enum FoodType {
+    VEGETABLE("Овощ"),
+    FRUIT("Фрукт"),
+    /**
+     * Тип, который не удалось распознать при чтении таблицы. Такая строка попадает в расхождения
+     * {@link FoodTableDiff}, а не прерывает чтение.
+     */
+    UNKNOWN("Неизвестный");
+
+    private final String title;
+
+    FoodType(String title) {
+        this.title = title;
+    }
+
+    /**
+     * Название типа на странице Список товаров.
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Возвращает тип по названию, отображаемому на странице.
+     * @throws IllegalArgumentException если тип с таким названием отсутствует.
+     */
+    public static FoodType fromTitle(String title) {
+        FoodType type = parseTitle(title);
+        if (type == UNKNOWN) {
+            throw new IllegalArgumentException("Неизвестный тип товара: " + title);
+        }
+        return type;
+    }
+
+    /**
+     * Возвращает тип по названию, отображаемому на странице, или {@link #UNKNOWN}.
+     */
+    public static FoodType parseTitle(String title) {
+        for (FoodType type : values()) {
+            if (type != UNKNOWN && type.title.equals(title)) {
+                return type;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Возвращает тип по коду из таблицы FOOD или {@link #UNKNOWN}.
+     */
+    public static FoodType parseCode(String code) {
+        for (FoodType type : values()) {
+            if (type != UNKNOWN && type.name().equals(code)) {
+                return type;
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -1,31 +1,341 @@
 package org.ibs.pages;
 
+import org.ibs.driver.NetworkMonitor;
+import org.ibs.metrics.TimingStore;
+import org.ibs.model.FoodRow;
+import org.ibs.model.FoodType;
 import org.ibs.utils.Locators;
+import org.ibs.utils.WorkerNamespace;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
+import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class FoodPage {
+    /**
+     * Время от нажатия "Сохранить" до отрисовки новой строки.
+     */
+    public static final String SAVE_TO_RENDER = "saveToRender";
+    public static final String NAVIGATION_TTFB = "navigation.ttfb";
+    public static final String NAVIGATION_DOM_CONTENT_LOADED = "navigation.domContentLoaded";
+    public static final String NAVIGATION_LOAD = "navigation.load";
+    /**
+     * Время до получения последнего ресурса страницы.
+     */
+    public static final String NAVIGATION_RESOURCES = "navigation.resources";
+    /**
+     * Текст ячеек наименования, типа и экзотичности для каждой строки {@code //table/tbody/tr}.
+     */
+    private static final String SNAPSHOT_SCRIPT =
+            "return Array.from(document.querySelectorAll('table > tbody > tr')).map(function (tr) {" +
+            "  var cells = tr.querySelectorAll(':scope > td');" +
+            "  return [0, 1, 2].map(function (i) { return cells[i] ? cells[i].innerText.trim() : ''; });" +
+            "});";
+    /**
+     * Готовит ожидание сохранения: один раз на документ подключает счётчик запросов {@code fetch}/{@code XMLHttpRequest},
+     * запоминает наименование из формы и время нажатия на кнопку {@code arguments[0]} по часам страницы
+     * (также в sessionStorage, чтобы измерить время и после перезагрузки страницы сохранением).
+     * Возвращает количество строк таблицы.
+     */
+    private static final String BEFORE_SAVE_SCRIPT =
+            "var save = window.__foodSave;" +
+            "if (!save) {" +
+            "  save = window.__foodSave = {pending: 0, started: 0};" +
+            "  var settled = function () { save.pending--; if (save.onSettled) { save.onSettled(); } };" +
+            "  var originalFetch = window.fetch;" +
+            "  window.fetch = function () {" +
+            "    save.pending++; save.started++;" +
+            "    return originalFetch.apply(this, arguments).finally(settled);" +
+            "  };" +
+            "  var originalSend = XMLHttpRequest.prototype.send;" +
+            "  XMLHttpRequest.prototype.send = function () {" +
+            "    save.pending++; save.started++;" +
+            "    this.addEventListener('loadend', settled);" +
+            "    return originalSend.apply(this, arguments);" +
+            "  };" +
+            "}" +
+            "var name = document.getElementById('name');" +
+            "save.name = name ? name.value.trim() : null;" +
+            "save.clickedAt = undefined;" +
+            "save.started = 0;" +
+            "arguments[0].addEventListener('click', function () {" +
+            "  save.clickedAt = performance.now(); save.started = 0;" +
+            "  try { sessionStorage.setItem('__foodSaveClickedAt', String(performance.timeOrigin + save.clickedAt)); } catch (e) {}" +
+            "}, {once: true, capture: true});" +
+            "return document.querySelectorAll('table > tbody > tr').length;";
+    /**
+     * Показатели Navigation Timing и Resource Timing текущего документа в миллисекундах от начала перехода.
+     * Для документа, переиспользованного после {@link #resetInPlace(int)}, показатели возвращаются только один раз.
+     */
+    private static final String NAVIGATION_TIMING_SCRIPT =
+            "var nav = performance.getEntriesByType('navigation')[0];" +
+            "if (!nav || window.__foodNavigationCollected) { return {}; }" +
+            "window.__foodNavigationCollected = true;" +
+            "var resources = performance.getEntriesByType('resource').reduce(function (max, entry) {" +
+            "  return Math.max(max, entry.responseEnd); }, 0);" +
+            "return {'" + NAVIGATION_TTFB + "': nav.responseStart - nav.startTime," +
+            "  '" + NAVIGATION_DOM_CONTENT_LOADED + "': nav.domContentLoadedEventEnd - nav.startTime," +
+            "  '" + NAVIGATION_LOAD + "': nav.loadEventEnd - nav.startTime," +
+            "  '" + NAVIGATION_RESOURCES + "': resources};";
+    /**
+     * Ждёт завершения сохранения, но не дольше {@code arguments[1]} мс. Сохранение завершено, когда строк на странице
+     * стало больше {@code arguments[0]}, на странице появилась строка с сохраняемым наименованием или все запросы,
+     * начатые после нажатия "Сохранить", завершились и DOM не менялся {@code arguments[2]} мс. Последнее условие
+     * не зависит от пагинации: новая строка может попасть на другую страницу. Если сохранение перезагрузило страницу,
+     * ожидание завершается по загрузке нового документа.
+     * Возвращает количество строк (-1 по истечении времени) и время от нажатия "Сохранить" до отрисовки,
+     * в том числе на перезагруженной странице (-1, если время нажатия неизвестно). Завершается по событиям MutationObserver и запросов, без периодического опроса.
+     */
+    private static final String AWAIT_SAVED_SCRIPT =
+            "var before = arguments[0], budget = arguments[1], quiet = arguments[2], done = arguments[arguments.length - 1];" +
+            "var save = window.__foodSave;" +
+            "var count = function () { return document.querySelectorAll('table > tbody > tr').length; };" +
+            "var finish = function (rows) {" +
+            "  var clicked = save && save.clickedAt !== undefined ? performance.timeOrigin + save.clickedAt : -1;" +
+            "  try {" +
+            "    if (clicked < 0) { clicked = Number(sessionStorage.getItem('__foodSaveClickedAt')) || -1; }" +
+            "    sessionStorage.removeItem('__foodSaveClickedAt');" +
+            "  } catch (e) {}" +
+            "  done([rows, rows >= 0 && clicked > 0 ? performance.timeOrigin + performance.now() - clicked : -1]);" +
+            "};" +
+            "var timer, quietTimer;" +
+            "if (!save) {" +
+            "  if (document.readyState === 'complete') { finish(count()); return; }" +
+            "  timer = setTimeout(function () { finish(-1); }, budget);" +
+            "  window.addEventListener('load', function () { clearTimeout(timer); finish(count()); });" +
+            "  return;" +
+            "}" +
+            "var hasName = function () {" +
+            "  return !!save.name && Array.prototype.some.call(document.querySelectorAll('table > tbody > tr > td:first-of-type')," +
+            "    function (cell) { return cell.textContent.trim() === save.name; });" +
+            "};" +
+            "var observer;" +
+            "var stop = function (rows) {" +
+            "  observer.disconnect(); clearTimeout(timer); clearTimeout(quietTimer); save.onSettled = null; finish(rows);" +
+            "};" +
+            "var check = function () {" +
+            "  if (count() > before || hasName()) { stop(count()); return; }" +
+            "  clearTimeout(quietTimer);" +
+            "  if (save.started > 0 && save.pending === 0) {" +
+            "    quietTimer = setTimeout(function () { if (save.pending === 0) { stop(count()); } }, quiet);" +
+            "  }" +
+            "};" +
+            "observer = new MutationObserver(check);" +
+            "save.onSettled = check;" +
+            "timer = setTimeout(function () { stop(-1); }, budget);" +
+            "observer.observe(document.body, {childList: true, subtree: true});" +
+            "check();";
+    /**
+     * Функция {@code countRows(tbody, suffixRegex, suffix)}: количество исходных строк (без суффикса потока)
+     * и строк потока с суффиксом {@code suffix}.
+     */
+    private static final String COUNT_ROWS_FUNCTION =
+            "function countRows(tbody, suffixRegex, suffix) {" +
+            "  var pattern = new RegExp(suffixRegex), base = 0, owned = 0;" +
+            "  tbody.querySelectorAll(':scope > tr').forEach(function (tr) {" +
+            "    var cell = tr.querySelector(':scope > td'), name = cell ? cell.textContent.trim() : '';" +
+            "    if (name.endsWith(suffix)) { owned++; } else if (!pattern.test(name)) { base++; }" +
+            "  });" +
+            "  return {base: base, owned: owned};" +
+            "}";
+    private static final String BASELINE_ROWS_SCRIPT =
+            COUNT_ROWS_FUNCTION +
+            "var tbody = document.querySelector('table > tbody');" +
+            "return tbody ? countRows(tbody, arguments[0], arguments[1]).base : -1;";
+    /**
+     * Очищает форму добавления, закрывает её и заменяет {@code tbody} (и пагинацию, если есть) разметкой, полученной
+     * одним запросом страницы, не дольше {@code arguments[0]} мс. Возвращает количество исходных строк, если оно равно
+     * {@code arguments[1]} и строк потока ({@code arguments[2]} - суффикс любого потока, {@code arguments[3]} - суффикс
+     * текущего) не осталось, иначе - описание ошибки.
+     */
+    private static final String RESET_IN_PLACE_SCRIPT =
+            COUNT_ROWS_FUNCTION +
+            "var budget = arguments[0], baseline = arguments[1], anySuffix = arguments[2], suffix = arguments[3]," +
+            "  done = arguments[arguments.length - 1];" +
+            "var name = document.getElementById('name'), type = document.getElementById('type')," +
+            "  exotic = document.getElementById('exotic');" +
+            "if (name) { name.value = ''; }" +
+            "if (type) { type.selectedIndex = 0; }" +
+            "if (exotic) { exotic.checked = false; }" +
+            "if (window.jQuery && window.jQuery.fn.modal) { window.jQuery('.modal').modal('hide'); }" +
+            "else { document.querySelectorAll('.modal').forEach(function (modal) { modal.classList.add('hidden'); }); }" +
+            "if (window.__foodSave) { window.__foodSave.clickedAt = undefined; window.__foodSave.started = 0; }" +
+            "window.scrollTo(0, 0);" +
+            "var controller = new AbortController();" +
+            "var timer = setTimeout(function () { controller.abort(); }, budget);" +
+            "fetch(location.href.split('#')[0], {cache: 'no-store', credentials: 'same-origin', signal: controller.signal})" +
+            "  .then(function (response) {" +
+            "    if (!response.ok) { throw new Error('HTTP ' + response.status); }" +
+            "    return response.text();" +
+            "  })" +
+            "  .then(function (html) {" +
+            "    clearTimeout(timer);" +
+            "    var fresh = new DOMParser().parseFromString(html, 'text/html');" +
+            "    var body = fresh.querySelector('table > tbody'), current = document.querySelector('table > tbody');" +
+            "    if (!body || !current) { throw new Error('На странице нет таблицы товаров'); }" +
+            "    current.innerHTML = body.innerHTML;" +
+            "    var pagination = fresh.querySelector('ul.pagination'), currentPagination = document.querySelector('ul.pagination');" +
+            "    if (pagination && currentPagination) { currentPagination.innerHTML = pagination.innerHTML; }" +
+            "    var rows = countRows(current, anySuffix, suffix);" +
+            "    done(rows.base === baseline && rows.owned === 0 ? rows.base" +
+            "      : 'исходных строк ' + rows.base + ' вместо ' + baseline + ', строк потока ' + rows.owned);" +
+            "  })" +
+            "  .catch(function (error) { clearTimeout(timer); done(String(error)); });";
+    private static final String READY_STATE_SCRIPT = "return document.readyState;";
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final Duration POLLING = Duration.ofMillis(50);
+    private static final Duration NETWORK_QUIET = Duration.ofMillis(50);
+
     private final WebDriver driver;
+    private final TimingStore timings;
+    private final WebDriverWait wait;
+    private final List<WaitTiming> waitTimings = new ArrayList<>();
+    private final List<PerfSample> perfSamples = new ArrayList<>();
+    private long rowsBeforeSave = -1;
 
     public FoodPage(WebDriver driver) {
+        this(driver, TimingStore.shared());
+    }
+
+    /**
+     * @param driver драйвер с открытой страницей.
+     * @param timings хранилище, из которого берутся бюджеты ожиданий и в которое записываются их длительности.
+     */
+    public FoodPage(WebDriver driver, TimingStore timings) {
         this.driver = driver;
+        this.timings = timings;
+        this.wait = new WebDriverWait(driver, TimingStore.MAX_BUDGET, POLLING);
     }
 
     public FoodPage clickAddBtn(){
-        WebElement btnAdd = driver.findElement(Locators.FoodPage.BTN_ADD);
+        WebElement btnAdd = await("clickAddBtn", ExpectedConditions.elementToBeClickable(Locators.FoodPage.BTN_ADD));
         btnAdd.click();
         return this;
     }
+
+    /**
+     * Нажимает кнопку "Сохранить", предварительно запоминая количество строк в таблице, сохраняемое наименование
+     * и время нажатия для {@link #awaitRowAdded()}.
+     */
     public FoodPage clickSaveBtn(){
         WebElement btnSave = driver.findElement(Locators.FoodPage.BTN_SAVE);
+        rowsBeforeSave = (Long) ((JavascriptExecutor) driver).executeScript(BEFORE_SAVE_SCRIPT, btnSave);
         btnSave.click();
         return this;
     }
+
+    /**
+     * Ожидает завершения сохранения после {@link #clickSaveBtn()}: появления новой строки на странице или, если строка
+     * попала на другую страницу таблицы, завершения запросов сохранения.
+     * Возвращает управление сразу после изменения DOM, длительность ожидания сохраняется в {@link #getWaitTimings()},
+     * а время от нажатия до отрисовки по часам браузера - в {@link #getPerfSamples()} как {@link #SAVE_TO_RENDER}.
+     * @throws TimeoutException если сохранение не завершилось за бюджет ожидания {@link TimingStore}.
+     */
+    public FoodPage awaitRowAdded(){
+        if (rowsBeforeSave < 0) {
+            throw new IllegalStateException("awaitRowAdded() вызывается после clickSaveBtn()");
+        }
+        Duration budget = timings.budget("awaitRowAdded");
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            try {
+                awaitSaved(rowsBeforeSave, budget);
+            } catch (JavascriptException e) {
+                // Сохранение перезагрузило страницу во время ожидания: повторяем ожидание на новом документе
+                // в пределах оставшегося бюджета
+                Duration remaining = budget.minusNanos(System.nanoTime() - start);
+                if (remaining.toMillis() <= 0) {
+                    throw new TimeoutException("Сохранение не завершилось за " + budget.toMillis()
+                            + " мс, строк до сохранения: " + rowsBeforeSave, e);
+                }
+                awaitSaved(rowsBeforeSave, remaining);
+            }
+            succeeded = true;
+        } finally {
+            record("awaitRowAdded", start, succeeded);
+            rowsBeforeSave = -1;
+        }
+        return this;
+    }
+
+    /**
+     * Ожидает завершения сетевых запросов страницы: в режиме CDP - по событиям сети {@link NetworkMonitor},
+     * иначе - до {@code document.readyState == 'complete'}.
+     * @throws TimeoutException если сеть не успокоилась за бюджет ожидания {@link TimingStore}.
+     */
+    public FoodPage awaitNetworkIdle(){
+        Optional<NetworkMonitor> monitor = NetworkMonitor.of(driver);
+        if (monitor.isEmpty()) {
+            await("awaitNetworkIdle", d -> "complete".equals(((JavascriptExecutor) d).executeScript(READY_STATE_SCRIPT)));
+            return this;
+        }
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            monitor.get().awaitIdle(NETWORK_QUIET, timings.budget("awaitNetworkIdle"));
+            succeeded = true;
+        } finally {
+            record("awaitNetworkIdle", start, succeeded);
+        }
+        return this;
+    }
+
+    /**
+     * Количество исходных строк таблицы, то есть строк без суффикса потока {@link WorkerNamespace}.
+     * Запоминается при открытии страницы и служит эталоном для {@link #resetInPlace(int)}.
+     * @return количество строк или -1, если на странице нет таблицы.
+     */
+    public int countBaselineRows(){
+        Object rows = ((JavascriptExecutor) driver).executeScript(BASELINE_ROWS_SCRIPT,
+                WorkerNamespace.SUFFIX_REGEX, WorkerNamespace.suffix());
+        return ((Number) rows).intValue();
+    }
+
+    /**
+     * Возвращает открытую страницу в исходное состояние без перехода: очищает и закрывает форму добавления
+     * и перерисовывает таблицу по ответу сервера одним запросом. После замены проверяется, что исходных строк
+     * столько же, сколько при открытии страницы, и строк текущего потока не осталось.
+     * Длительность сохраняется в {@link #getWaitTimings()} и уточняет бюджет действия в {@link TimingStore}.
+     * @param baselineRows количество исходных строк, см. {@link #countBaselineRows()}.
+     * @throws IllegalStateException если страницу не удалось обновить на месте или таблица отличается от исходной;
+     *                               тогда её следует открыть заново.
+     */
+    public FoodPage resetInPlace(int baselineRows){
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(RESET_IN_PLACE_SCRIPT,
+                    timings.budget("resetInPlace").toMillis(), baselineRows,
+                    WorkerNamespace.SUFFIX_REGEX, WorkerNamespace.suffix());
+            if (!(result instanceof Number)) {
+                throw new IllegalStateException("Не удалось обновить страницу без перехода: " + result);
+            }
+            rowsBeforeSave = -1;
+            succeeded = true;
+        } finally {
+            record("resetInPlace", start, succeeded);
+        }
+        return this;
+    }
+
     public void clickResetBtn(){
-        WebElement btnResetBtn = driver.findElement(Locators.FoodPage.BTN_RESET);
+        WebElement btnResetBtn = await("clickResetBtn", ExpectedConditions.elementToBeClickable(Locators.FoodPage.BTN_RESET));
         btnResetBtn.click();
     }
     public FoodPage clickNavBarDropDown(){
@@ -37,8 +347,44 @@ public class FoodPage {
         return driver.findElements(Locators.FoodPage.TABLE_ROWS);
     }
 
+    /**
+     * Считывает всю таблицу товаров за одно выполнение JavaScript вместо отдельного запроса к WebDriver на каждую ячейку.
+     * Читается только открытая страница таблицы, без пагинации, поэтому тесты используют {@link #streamRows()},
+     * а снимок служит точкой сравнения в бенчмарке {@code FoodPageBenchmark}.
+     * @return неизменяемый список строк открытой страницы таблицы.
+     */
+    public List<FoodRow> snapshotTable(){
+        @SuppressWarnings("unchecked")
+        List<List<String>> cells = (List<List<String>>) ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT);
+        List<FoodRow> rows = new ArrayList<>(cells.size());
+        for (List<String> row : cells) {
+            rows.add(toRow(row));
+        }
+        return List.copyOf(rows);
+    }
+
+    /**
+     * Ленивый поток строк таблицы, читаемых порциями по {@value #STREAM_CHUNK_SIZE} строк.
+     * @see #streamRows(int)
+     */
+    public Stream<FoodRow> streamRows(){
+        return streamRows(STREAM_CHUNK_SIZE);
+    }
+
+    /**
+     * Ленивый поток строк таблицы. Строки читаются порциями по одному скрипту на порцию, поэтому память
+     * не зависит от размера таблицы, а {@code anyMatch} и {@code findFirst} останавливают чтение на первом совпадении.
+     * При наличии пагинации поток начинается с первой страницы и продолжается на следующих, которые запрашиваются
+     * через {@code fetch}: видимая страница не меняется, поэтому чтение не мешает последующим действиям теста.
+     * @param chunkSize количество строк в порции.
+     */
+    public Stream<FoodRow> streamRows(int chunkSize){
+        TableRowSpliterator rows = new TableRowSpliterator(driver, timings, chunkSize);
+        return StreamSupport.stream(rows, false).onClose(rows::release);
+    }
+
     public FoodPage fillNameField(String name){
-        WebElement nameField = driver.findElement(Locators.FoodPage.INPUT_NAME);
+        WebElement nameField = await("fillNameField", ExpectedConditions.visibilityOfElementLocated(Locators.FoodPage.INPUT_NAME));
         nameField.sendKeys(name);
         return this;
     }
@@ -56,4 +402,81 @@ public class FoodPage {
         }
         return this;
     }
+
+    /**
+     * Фактические длительности ожиданий, выполненных этой страницей, в порядке выполнения.
+     */
+    public List<WaitTiming> getWaitTimings(){
+        return Collections.unmodifiableList(waitTimings);
+    }
+
+    /**
+     * Считывает Navigation Timing и Resource Timing открытого документа в {@link #getPerfSamples()}.
+     * Показатели, которые браузер ещё не заполнил (например, событие load не наступило), пропускаются.
+     */
+    public FoodPage collectNavigationTimings(){
+        Map<?, ?> timings = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(NAVIGATION_TIMING_SCRIPT);
+        for (Map.Entry<?, ?> timing : timings.entrySet()) {
+            double millis = ((Number) timing.getValue()).doubleValue();
+            if (millis > 0) {
+                perfSamples.add(new PerfSample(String.valueOf(timing.getKey()), Duration.ofNanos(Math.round(millis * 1_000_000))));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Времена, измеренные браузером, в порядке измерения.
+     */
+    public List<PerfSample> getPerfSamples(){
+        return Collections.unmodifiableList(perfSamples);
+    }
+
+    static FoodRow toRow(List<String> cells){
+        return new FoodRow(cells.get(0), FoodType.parseTitle(cells.get(1)), Boolean.parseBoolean(cells.get(2)));
+    }
+
+    private void awaitSaved(long count, Duration budget){
+        List<?> result;
+        try {
+            result = (List<?>) ((JavascriptExecutor) driver).executeAsyncScript(AWAIT_SAVED_SCRIPT, count,
+                    budget.toMillis(), NETWORK_QUIET.toMillis());
+        } catch (ScriptTimeoutException e) {
+            throw new TimeoutException("Сохранение не завершилось, строк до сохранения: " + count, e);
+        }
+        if (((Number) result.get(0)).longValue() < 0) {
+            throw new TimeoutException("Сохранение не завершилось за " + budget.toMillis()
+                    + " мс, строк до сохранения: " + count);
+        }
+        double renderMillis = ((Number) result.get(1)).doubleValue();
+        if (renderMillis >= 0) {
+            perfSamples.add(new PerfSample(SAVE_TO_RENDER, Duration.ofNanos(Math.round(renderMillis * 1_000_000))));
+        }
+    }
+
+    /**
+     * Ожидает условие не дольше бюджета действия, поэтому отрицательные проверки не ждут полные 10 секунд.
+     */
+    private <T> T await(String action, ExpectedCondition<T> condition){
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            T result = wait.withTimeout(timings.budget(action)).until(condition);
+            succeeded = true;
+            return result;
+        } finally {
+            record(action, start, succeeded);
+        }
+    }
+
+    /**
+     * Сохраняет длительность ожидания; успешные ожидания также уточняют бюджет действия в {@link TimingStore}.
+     */
+    private void record(String action, long startNanos, boolean succeeded){
+        Duration duration = Duration.ofNanos(System.nanoTime() - startNanos);
+        waitTimings.add(new WaitTiming(action, duration));
+        if (succeeded) {
+            timings.record(action, duration);
+        }
+    }
 }
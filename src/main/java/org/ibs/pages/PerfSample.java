@@ -0,0 +1,11 @@
+package org.ibs.pages;
+
+import java.time.Duration;
+
+/**
+ * Время, измеренное браузером на странице.
+ * @param metric показатель, например {@link FoodPage#SAVE_TO_RENDER} или {@link FoodPage#NAVIGATION_LOAD}.
+ * @param duration значение показателя.
+ */
+public record PerfSample(String metric, Duration duration) {
+}
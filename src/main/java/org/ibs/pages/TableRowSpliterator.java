@@ -0,0 +1,174 @@
+package org.ibs.pages;
+
+import org.ibs.metrics.TimingStore;
+import org.ibs.model.FoodRow;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Ленивое чтение таблицы товаров порциями по {@code chunkSize} строк.
+ * <p>
+ * Следующая порция запрашивается одним скриптом только тогда, когда предыдущая прочитана, поэтому в памяти
+ * одновременно находится не больше одной порции, а короткозамкнутые операции ({@code anyMatch}, {@code findFirst})
+ * не читают таблицу целиком. Строки страницы один раз собираются в массив на стороне браузера, и порции читаются
+ * из него по индексу. При пагинации (активная ссылка {@code rel="next"} в {@code ul.pagination}) чтение начинается
+ * с первой страницы, а следующие страницы запрашиваются через {@code fetch}: видимая страница не меняется.
+ */
+class TableRowSpliterator extends Spliterators.AbstractSpliterator<FoodRow> {
+    private static final AtomicLong IDS = new AtomicLong();
+    /**
+     * Сколько незакрытых потоков хранят строки в браузере: короткозамкнутые операции не дочитывают таблицу,
+     * поэтому строки самых старых потоков освобождаются при открытии нового.
+     */
+    private static final int MAX_OPEN_STREAMS = 4;
+    /**
+     * Загружает в {@code window.__foodStreams[arguments[0]]} строки и ссылку на следующую страницу не дольше
+     * {@code arguments[1]} мс. Режим {@code arguments[2]}: {@code "start"} - первая страница таблицы
+     * (с открытой страницы по ссылкам {@code rel="prev"}), {@code "next"} - следующая страница.
+     * Возвращает {@code true}, если страница загружена, {@code false}, если страниц больше нет, иначе - описание ошибки.
+     */
+    private static final String LOAD_PAGE_SCRIPT =
+            "var id = arguments[0], budget = arguments[1], mode = arguments[2], done = arguments[arguments.length - 1];" +
+            "var streams = window.__foodStreams || (window.__foodStreams = {});" +
+            "var controller = new AbortController();" +
+            "var timer = setTimeout(function () { controller.abort(); }, budget);" +
+            "function link(doc, rel, base) {" +
+            "  var a = doc.querySelector('ul.pagination li:not(.disabled) a[rel=' + rel + ']');" +
+            "  return a && a.getAttribute('href') ? new URL(a.getAttribute('href'), base).href : null;" +
+            "}" +
+            "function load(url) {" +
+            "  return fetch(url, {cache: 'no-store', credentials: 'same-origin', signal: controller.signal})" +
+            "    .then(function (response) {" +
+            "      if (!response.ok) { throw new Error('HTTP ' + response.status + ' ' + url); }" +
+            "      return response.text();" +
+            "    })" +
+            "    .then(function (html) { return {doc: new DOMParser().parseFromString(html, 'text/html'), url: url}; });" +
+            "}" +
+            "function rewind(page) {" +
+            "  var prev = link(page.doc, 'prev', page.url);" +
+            "  return prev ? load(prev).then(rewind) : page;" +
+            "}" +
+            "function keep(page) {" +
+            "  clearTimeout(timer);" +
+            "  streams[id] = {rows: Array.from(page.doc.querySelectorAll('table > tbody > tr'))," +
+            "    next: link(page.doc, 'next', page.url)};" +
+            "  done(true);" +
+            "}" +
+            "if (mode === 'start') {" +
+            "  var ids = Object.keys(streams);" +
+            "  while (ids.length >= " + MAX_OPEN_STREAMS + ") { delete streams[ids.shift()]; }" +
+            "}" +
+            "var current = streams[id];" +
+            "if (mode === 'next' && (!current || !current.next)) { clearTimeout(timer); delete streams[id]; done(false); return; }" +
+            "Promise.resolve(mode === 'next' ? load(current.next) : rewind({doc: document, url: location.href}))" +
+            "  .then(keep)" +
+            "  .catch(function (error) { clearTimeout(timer); done(String(error)); });";
+    /**
+     * Текст ячеек строк {@code arguments[1]}..{@code arguments[1] + arguments[2]} загруженной страницы
+     * или {@code null}, если загруженные строки потеряны (страница перезагружена или строки освобождены).
+     */
+    private static final String CHUNK_SCRIPT =
+            "var stream = window.__foodStreams && window.__foodStreams[arguments[0]];" +
+            "if (!stream) { return null; }" +
+            "return stream.rows.slice(arguments[1], arguments[1] + arguments[2]).map(function (tr) {" +
+            "  var cells = tr.querySelectorAll(':scope > td');" +
+            "  return [0, 1, 2].map(function (c) { return cells[c] ? cells[c].innerText.trim() : ''; });" +
+            "});";
+    private static final String RELEASE_SCRIPT = "if (window.__foodStreams) { delete window.__foodStreams[arguments[0]]; }";
+
+    private final WebDriver driver;
+    private final TimingStore timings;
+    private final int chunkSize;
+    private final String id = "stream-" + IDS.incrementAndGet();
+    private final Deque<FoodRow> chunk = new ArrayDeque<>();
+    private int offset;
+    private boolean started;
+    private boolean exhausted;
+
+    /**
+     * @param timings хранилище, из которого берётся бюджет загрузки страницы {@code "nextPage"} и в которое
+     *                записываются длительности успешных загрузок следующих страниц.
+     */
+    TableRowSpliterator(WebDriver driver, TimingStore timings, int chunkSize) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Размер порции должен быть положительным");
+        }
+        this.driver = driver;
+        this.timings = timings;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super FoodRow> action) {
+        if (chunk.isEmpty() && !fetch()) {
+            return false;
+        }
+        action.accept(chunk.poll());
+        return true;
+    }
+
+    /**
+     * Освобождает строки, загруженные в браузере. Вызывается при закрытии потока.
+     */
+    void release() {
+        try {
+            ((JavascriptExecutor) driver).executeScript(RELEASE_SCRIPT, id);
+        } catch (WebDriverException e) {
+            // Страница уже закрыта или перезагружена: освобождать нечего
+        }
+    }
+
+    private boolean fetch() {
+        if (!started) {
+            started = true;
+            exhausted = !loadPage("start");
+        }
+        while (!exhausted) {
+            @SuppressWarnings("unchecked")
+            List<List<String>> cells = (List<List<String>>) ((JavascriptExecutor) driver)
+                    .executeScript(CHUNK_SCRIPT, id, offset, chunkSize);
+            if (cells == null) {
+                throw new IllegalStateException("Строки таблицы недоступны: страница перезагружена во время чтения или открыто больше "
+                        + MAX_OPEN_STREAMS + " потоков");
+            }
+            for (List<String> row : cells) {
+                chunk.add(FoodPage.toRow(row));
+            }
+            offset += cells.size();
+            if (!chunk.isEmpty()) {
+                return true;
+            }
+            exhausted = !loadPage("next");
+        }
+        return false;
+    }
+
+    /**
+     * Загружает страницу таблицы в браузере.
+     * @return {@code false}, если страниц больше нет.
+     */
+    private boolean loadPage(String mode) {
+        long start = System.nanoTime();
+        Object result = ((JavascriptExecutor) driver).executeAsyncScript(LOAD_PAGE_SCRIPT, id,
+                timings.budget("nextPage").toMillis(), mode);
+        if (!(result instanceof Boolean)) {
+            throw new IllegalStateException("Не удалось загрузить страницу таблицы: " + result);
+        }
+        if ("next".equals(mode) && (Boolean) result) {
+            timings.record("nextPage", Duration.ofNanos(System.nanoTime() - start));
+        }
+        offset = 0;
+        return (Boolean) result;
+    }
+}
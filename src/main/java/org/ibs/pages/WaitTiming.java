@@ -0,0 +1,11 @@
+package org.ibs.pages;
+
+import java.time.Duration;
+
+/**
+ * Фактическая длительность ожидания на странице.
+ * @param action действие, для которого выполнялось ожидание, например {@code "awaitRowAdded"}.
+ * @param duration сколько длилось ожидание.
+ */
+public record WaitTiming(String action, Duration duration) {
+}
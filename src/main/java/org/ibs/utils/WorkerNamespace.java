@@ -0,0 +1,62 @@
+package org.ibs.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Пространство имён товаров для потока, выполняющего тесты.
+ * <p>
+ * При параллельном запуске тесты работают с общей таблицей FOOD, поэтому к наименованию товара
+ * добавляется суффикс, уникальный для запуска и потока, например {@code "Картофель [k3f9.2]"}.
+ * По суффиксу поток находит и удаляет только свои строки.
+ */
+public final class WorkerNamespace {
+    private static final String RUN_ID = Integer.toString(ThreadLocalRandom.current().nextInt(36 * 36 * 36, 36 * 36 * 36 * 36), 36);
+    /**
+     * Регулярное выражение для суффикса любого потока; синтаксис совместим с JavaScript.
+     */
+    public static final String SUFFIX_REGEX = " \\[[0-9a-z]+\\.\\d+]$";
+    private static final Pattern SUFFIX_PATTERN = Pattern.compile(SUFFIX_REGEX);
+    private static final AtomicInteger WORKERS = new AtomicInteger();
+    private static final ThreadLocal<String> SUFFIX =
+            ThreadLocal.withInitial(() -> " [" + RUN_ID + "." + WORKERS.incrementAndGet() + "]");
+
+    private WorkerNamespace() {
+    }
+
+    /**
+     * Возвращает наименование товара с суффиксом текущего потока.
+     */
+    public static String name(String base) {
+        return base + suffix();
+    }
+
+    /**
+     * Наименование товара без суффикса потока, добавленного {@link #name(String)} в этом или другом запуске.
+     */
+    public static String base(String name) {
+        return SUFFIX_PATTERN.matcher(name).replaceFirst("");
+    }
+
+    /**
+     * Суффикс текущего потока.
+     */
+    public static String suffix() {
+        return SUFFIX.get();
+    }
+
+    /**
+     * Шаблон для SQL-оператора LIKE, выбирающий строки текущего потока.
+     */
+    public static String likePattern() {
+        return "%" + suffix();
+    }
+
+    /**
+     * Проверяет, принадлежит ли товар текущему потоку.
+     */
+    public static boolean owns(String name) {
+        return name.endsWith(suffix());
+    }
+}
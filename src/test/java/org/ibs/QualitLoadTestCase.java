@@ -0,0 +1,58 @@
+package org.ibs;
+
+import org.ibs.extensions.DatabaseExtension;
+import org.ibs.extensions.FoodSnapshotExtension;
+import org.ibs.extensions.LoadExtension;
+import org.ibs.load.AddProductLoad;
+import org.ibs.load.LoadProfile;
+import org.ibs.load.LoadReport;
+import org.ibs.utils.WorkerNamespace;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Класс QualitLoadTestCase проверяет поведение страницы Список товаров при одновременном добавлении товаров
+ * многими пользователями, в том числе гонку за одно наименование, которую testAddExistingProduct проверяет только
+ * последовательно. Запускается только при заданном параметре {@code food.load.users}.
+ * Добавленные строки удаляются после теста расширением {@link FoodSnapshotExtension}.
+ */
+@EnabledIfSystemProperty(named = "food.load.users", matches = "\\d+")
+@ExtendWith({DatabaseExtension.class, LoadExtension.class, FoodSnapshotExtension.class})
+public class QualitLoadTestCase {
+
+    /**
+     * Нагрузочный тест добавления товаров.
+     * <p>
+     * Шаги выполнения:
+     * 1) Пользователи подключаются равномерно в течение {@code food.load.rampUp} секунд.
+     * 2) Каждый пользователь добавляет товары без пауз в течение {@code food.load.duration} секунд,
+     *    часть наименований совпадает у всех пользователей.
+     * 3) В отчёт JUnit публикуются пропускная способность, процентили задержки и число повторяющихся строк FOOD_NAME.
+     *
+     * @param load нагрузочный прогон, выданный {@link LoadExtension}.
+     * @param profile параметры нагрузки.
+     * @param reporter отчёт JUnit.
+     * @throws SQLException если возникает ошибка при работе с базой данных.
+     * @throws InterruptedException если ожидание пользователей прервано.
+     */
+    @Test
+    void testConcurrentAdd(AddProductLoad load, LoadProfile profile, TestReporter reporter)
+            throws SQLException, InterruptedException {
+        LoadReport report = load.run(profile, WorkerNamespace.suffix());
+        System.out.println(report);
+        reporter.publishEntry("load.requests", Long.toString(report.requests()));
+        reporter.publishEntry("load.errors", Long.toString(report.errors()));
+        reporter.publishEntry("load.throughput", String.format(Locale.ROOT, "%.1f/s", report.throughput()));
+        reporter.publishEntry("load.p50", String.format(Locale.ROOT, "%.1f ms", report.p50()));
+        reporter.publishEntry("load.p95", String.format(Locale.ROOT, "%.1f ms", report.p95()));
+        reporter.publishEntry("load.p99", String.format(Locale.ROOT, "%.1f ms", report.p99()));
+        reporter.publishEntry("load.duplicateRows", Integer.toString(report.duplicateRows()));
+        Assertions.assertTrue(report.requests() > 0, "Ни одного товара не добавлено");
+    }
+}
@@ -1,50 +1,53 @@
 package org.ibs;
 
+import org.ibs.db.FoodRepository;
+import org.ibs.driver.DriverSession;
+import org.ibs.extensions.DatabaseExtension;
+import org.ibs.extensions.DriverPoolExtension;
+import org.ibs.extensions.FailureArtifactsExtension;
+import org.ibs.extensions.FoodSnapshotExtension;
+import org.ibs.extensions.PerfBudget;
+import org.ibs.extensions.PerfBudgetExtension;
+import org.ibs.model.FoodRow;
+import org.ibs.model.FoodTableDiff;
+import org.ibs.model.FoodType;
 import org.ibs.pages.FoodPage;
-import org.ibs.utils.Locators;
-import org.junit.jupiter.api.AfterEach;
+import org.ibs.params.GeneratedFoodSource;
+import org.ibs.utils.WorkerNamespace;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
-import java.sql.*;
-import java.time.Duration;
+import java.sql.SQLException;
 import java.util.List;
 
 /**
  * Класс QualitUITestCase отвечает за проверку UI страницы Список товаров.
  * Тесты проверяют добавление овощей и фруктов,  верифицируя корректность отображения данных в таблице после добавления.
+ *  После каждого теста таблица FOOD восстанавливается из снимка расширением {@link FoodSnapshotExtension}.
  *  В тестах используется база данных H2 для проверки уникальности добавляемых элементов.
+ *  Кроме строк {@code @CsvSource} тесты получают сгенерированные товары из {@link GeneratedFoodSource}.
+ *  Время от сохранения до отрисовки строки проверяется по бюджету {@link PerfBudget}.
  * @author Корнейчук Маргарита
  */
+@ExtendWith({DriverPoolExtension.class, DatabaseExtension.class, FoodSnapshotExtension.class, FailureArtifactsExtension.class,
+        PerfBudgetExtension.class})
 public class QualitUITestCase {
-    Connection connection;
-    private WebDriver driver;
+    private FoodRepository repository;
     private FoodPage foodPage;
-    private WebDriverWait webDriverWait;
 
     /**
-     * Метод, выполняющийся перед каждым тестом. Инициализирует WebDriver,  подключается к базе данных и открывает страницу со списком продуктов.
-     * @throws SQLException если возникает ошибка при подключении к базе данных.
+     * Метод, выполняющийся перед каждым тестом. Получает из пула сессию браузера с открытой страницей со списком продуктов
+     * и доступ к базе данных.
+     * @param session сессия браузера, выданная {@link DriverPoolExtension}.
+     * @param repository доступ к таблице FOOD, выданный {@link DatabaseExtension}.
      */
     @BeforeEach
-    void testsPreCondition() throws SQLException {
-        System.setProperty("webdriver.chromedriver.driver","src/test/resources/chrome.exe");
-        driver = new ChromeDriver();
-        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(10));
-        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(10));
-        driver.get("http://localhost:8080/food");
-        webDriverWait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        foodPage = new FoodPage(driver);
-        connection = DriverManager.getConnection("jdbc:h2:tcp://localhost:9092/mem:testdb","user","pass");
+    void testsPreCondition(DriverSession session, FoodRepository repository) {
+        foodPage = session.getFoodPage();
+        this.repository = repository;
     }
 
     /**
@@ -52,12 +55,13 @@ public class QualitUITestCase {
      * <p>
      * Шаги выполнения:
      * 1) Проверяется наличие записи с заданными параметрами в базе данных.
-     * 2) Запоминается начальное количество строк в таблице.
+     * 2) К наименованию товара добавляется суффикс потока выполнения.
      * 3) Нажимается кнопка "Добавить".
      * 4) Заполняются поля "Название" и "Экзотичность".
      * 5) Нажимается кнопка "Сохранить".
-     * 6) Проверяется, что количество строк в таблице увеличилось на 1.
-     * 7) Проверяются значения полей "Название", "Тип" и "Экзотичность" в последней строке таблицы.
+     * 6) Проверяется, что в таблице появилась ровно одна строка потока выполнения.
+     * 7) Проверяются значения полей "Название", "Тип" и "Экзотичность" в этой строке.
+     * 8) Строки потока на странице сверяются со строками потока в таблице FOOD.
      *
      * @param name Наименование товара.
      * @param type Тип товара (для данного теста всегда "Овощ").
@@ -66,65 +70,53 @@ public class QualitUITestCase {
      */
     @ParameterizedTest
     @CsvSource({"Картофель,Овощ,false","Melotria,Овощ,true"})
+    @GeneratedFoodSource(count = 12, types = FoodType.VEGETABLE)
+    @PerfBudget(p95 = "500ms")
     void testAddVegetable(String name, String type, boolean exotic) throws SQLException {
+        name = WorkerNamespace.name(name);
         // Проверка на существование записи в базе данных
-        String query = "SELECT COUNT(FOOD_ID) FROM FOOD WHERE FOOD_NAME = ? AND FOOD_TYPE = ? AND FOOD_EXOTIC = ?";
-        PreparedStatement preparedStatement = connection.prepareStatement(query);
-        preparedStatement.setString(1,name);
-        preparedStatement.setString(2, "VEGETABLE");
-        int exotic_code = exotic? 1:0;
-        preparedStatement.setInt(3, exotic_code);
-        ResultSet resultSet = preparedStatement.executeQuery();
-        resultSet.first();
-        int count = resultSet.getInt("COUNT(FOOD_ID)");
+        int count = repository.countMatching(name, FoodType.VEGETABLE, exotic);
 
         //Проверка на существование записи UI
-        List<WebElement> table_rows = foodPage.getTableRows();
-        WebElement name_r, type_r, exotic_r;
-        final boolean[] exist = {false};
-        for (WebElement row:table_rows) {
-            name_r = row.findElement(Locators.FoodPage.TABLE_ROW_NAME);
-            type_r = row.findElement(Locators.FoodPage.TABLE_ROW_TYPE);
-            exotic_r = row.findElement(Locators.FoodPage.TABLE_ROW_EXOTIC);
-            if (name_r.getText().equals(name)
-                    && type_r.getText().equals(type) && exotic_r.getText().equals(String.valueOf(exotic))){
-                exist[0] = true;
-                break;
-            }
-        }
+        FoodRow expected = new FoodRow(name, FoodType.fromTitle(type), exotic);
+        boolean exist = foodPage.streamRows().anyMatch(expected::equals);
         Assertions.assertAll("Проверки на существование строки",
-                () -> Assertions.assertFalse(exist[0], "Строка уже существует UI"),
+                () -> Assertions.assertFalse(exist, "Строка уже существует UI"),
                 () -> Assertions.assertEquals(0, count,"Строка уже существует БД"));
 
-        // Добавление товара и проверка количества строк
-        int initialRowCount = table_rows.size();
+        // Добавление товара и проверка количества строк потока
         foodPage = foodPage.clickAddBtn()
                 .fillNameField(name)
                 .setExotic(exotic)
-                .clickSaveBtn();
-        webDriverWait.until(ExpectedConditions.elementToBeClickable(Locators.FoodPage.BTN_ADD));
-        Assertions.assertEquals(initialRowCount + 1, foodPage.getTableRows().size(), "Строка не добавилась");
+                .clickSaveBtn()
+                .awaitRowAdded()
+                .awaitNetworkIdle();
+        List<FoodRow> ownedRows = foodPage.streamRows().filter(row -> WorkerNamespace.owns(row.name())).toList();
+        Assertions.assertEquals(1, ownedRows.size(), "Строка не добавилась");
 
-        // Проверка данных в последней строке таблицы
-        WebElement lastTableRow = foodPage.getTableRows().get(initialRowCount);
-        WebElement name_field = lastTableRow.findElement(Locators.FoodPage.TABLE_ROW_NAME);
-        WebElement type_field = lastTableRow.findElement(Locators.FoodPage.TABLE_ROW_TYPE);
-        WebElement exotic_field = lastTableRow.findElement(Locators.FoodPage.TABLE_ROW_EXOTIC);
-        Assertions.assertEquals(name, name_field.getText(), "Неверное название");
-        Assertions.assertEquals(type, type_field.getText(), "Неверный тип");
-        Assertions.assertEquals(String.valueOf(exotic), exotic_field.getText(), "Неверная экзотичность");
+        // Проверка данных в последней строке потока
+        FoodRow lastTableRow = ownedRows.get(ownedRows.size() - 1);
+        Assertions.assertEquals(name, lastTableRow.name(), "Неверное название");
+        Assertions.assertEquals(type, lastTableRow.type().getTitle(), "Неверный тип");
+        Assertions.assertEquals(exotic, lastTableRow.exotic(), "Неверная экзотичность");
+
+        // Сверка строк потока на странице и в базе данных
+        List<FoodRow> ownedDbRows = repository.findAll().stream().filter(row -> WorkerNamespace.owns(row.name())).toList();
+        FoodTableDiff diff = FoodTableDiff.compare(ownedDbRows, ownedRows);
+        Assertions.assertTrue(diff.isEmpty(), diff::toString);
     }
     /**
      * Параметризованный тест для проверки добавления фруктов. Аналогичен testAddVegetable.
      * <p>
      * Шаги выполнения:
      * 1) Проверяется наличие записи с заданными параметрами в базе данных.
-     * 2) Запоминается начальное количество строк в таблице.
+     * 2) К наименованию товара добавляется суффикс потока выполнения.
      * 3) Нажимается кнопка "Добавить".
      * 4) Заполняются поля "Название", "Тип" и "Экзотичность".
      * 5) Нажимается кнопка "Сохранить".
-     * 6) Проверяется, что количество строк в таблице увеличилось на 1.
-     * 7) Проверяются значения полей "Название", "Тип" и "Экзотичность" в последней строке таблицы.
+     * 6) Проверяется, что в таблице появилась ровно одна строка потока выполнения.
+     * 7) Проверяются значения полей "Название", "Тип" и "Экзотичность" в этой строке.
+     * 8) Строки потока на странице сверяются со строками потока в таблице FOOD.
      *
      * @param name Наименование товара.
      * @param type Тип товара (для данного теста всегда "Фрукт").
@@ -133,70 +125,41 @@ public class QualitUITestCase {
      */
     @ParameterizedTest
     @CsvSource({"Клубника,Фрукт,false","Mangosteen,Фрукт,true"})
+    @GeneratedFoodSource(count = 12, types = FoodType.FRUIT)
+    @PerfBudget(p95 = "500ms")
     void testAddFruit(String name, String type, boolean exotic) throws SQLException {
+        name = WorkerNamespace.name(name);
         // Проверка на существование записи в базе данных
-        String query = "SELECT COUNT(FOOD_ID) FROM FOOD WHERE FOOD_NAME = ? AND FOOD_TYPE = ? AND FOOD_EXOTIC = ?";
-        PreparedStatement preparedStatement = connection.prepareStatement(query);
-        preparedStatement.setString(1,name);
-        preparedStatement.setString(2, "FRUIT");
-        int exotic_code = exotic? 1:0;
-        preparedStatement.setInt(3, exotic_code);
-        ResultSet resultSet = preparedStatement.executeQuery();
-        resultSet.first();
-        int count = resultSet.getInt("COUNT(FOOD_ID)");
+        int count = repository.countMatching(name, FoodType.FRUIT, exotic);
 
         //Проверка на существование записи UI
-        List<WebElement> table_rows = foodPage.getTableRows();
-        WebElement name_r, type_r, exotic_r;
-        final boolean[] exist = {false};
-        for (WebElement row:table_rows) {
-            name_r = row.findElement(Locators.FoodPage.TABLE_ROW_NAME);
-            type_r = row.findElement(Locators.FoodPage.TABLE_ROW_TYPE);
-            exotic_r = row.findElement(Locators.FoodPage.TABLE_ROW_EXOTIC);
-            if (name_r.getText().equals(name)
-                    && type_r.getText().equals(type) && exotic_r.getText().equals(String.valueOf(exotic))){
-                exist[0] = true;
-                break;
-            }
-        }
+        FoodRow expected = new FoodRow(name, FoodType.fromTitle(type), exotic);
+        boolean exist = foodPage.streamRows().anyMatch(expected::equals);
         Assertions.assertAll("Проверки на существование строки",
-                () -> Assertions.assertFalse(exist[0],"Строка уже существует UI"),
+                () -> Assertions.assertFalse(exist, "Строка уже существует UI"),
                 () -> Assertions.assertEquals(0, count,"Строка уже существует БД"));
 
 
-        // Добавление товара и проверка количества строк
-        int initialRowCount = foodPage.getTableRows().size();
+        // Добавление товара и проверка количества строк потока
         foodPage = foodPage.clickAddBtn()
                 .fillNameField(name)
                 .setType(type)
                 .setExotic(exotic)
-                .clickSaveBtn();
-        webDriverWait.until(ExpectedConditions.elementToBeClickable(Locators.FoodPage.BTN_ADD));
-        Assertions.assertEquals(initialRowCount + 1, foodPage.getTableRows().size(), "Строка не добавилась");
+                .clickSaveBtn()
+                .awaitRowAdded()
+                .awaitNetworkIdle();
+        List<FoodRow> ownedRows = foodPage.streamRows().filter(row -> WorkerNamespace.owns(row.name())).toList();
+        Assertions.assertEquals(1, ownedRows.size(), "Строка не добавилась");
 
-        // Проверка данных в последней строке таблицы
-        WebElement lastTableRow = foodPage.getTableRows().get(initialRowCount);
-        WebElement name_field = lastTableRow.findElement(Locators.FoodPage.TABLE_ROW_NAME);
-        WebElement type_field = lastTableRow.findElement(Locators.FoodPage.TABLE_ROW_TYPE);
-        WebElement exotic_field = lastTableRow.findElement(Locators.FoodPage.TABLE_ROW_EXOTIC);
-        Assertions.assertEquals(name, name_field.getText(), "Неверное название");
-        Assertions.assertEquals(type, type_field.getText(), "Неверный тип");
-        Assertions.assertEquals(String.valueOf(exotic), exotic_field.getText(), "Неверная экзотичность");
-    }
-    /**
-     * Метод, выполняющийся после каждого теста. Сбрасывает данные на странице, закрывает браузер и соединение с БД.
-     */
-    @AfterEach
-    void postCondition() {
-        foodPage.clickNavBarDropDown().clickResetBtn();
-        Assertions.assertEquals(4, foodPage.getTableRows().size(), "Ошибка при сбросе данных");
-        driver.quit();
-        try {
-            if (connection != null) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        // Проверка данных в последней строке потока
+        FoodRow lastTableRow = ownedRows.get(ownedRows.size() - 1);
+        Assertions.assertEquals(name, lastTableRow.name(), "Неверное название");
+        Assertions.assertEquals(type, lastTableRow.type().getTitle(), "Неверный тип");
+        Assertions.assertEquals(exotic, lastTableRow.exotic(), "Неверная экзотичность");
+
+        // Сверка строк потока на странице и в базе данных
+        List<FoodRow> ownedDbRows = repository.findAll().stream().filter(row -> WorkerNamespace.owns(row.name())).toList();
+        FoodTableDiff diff = FoodTableDiff.compare(ownedDbRows, ownedRows);
+        Assertions.assertTrue(diff.isEmpty(), diff::toString);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package org.ibs.assertions;
+
+import org.ibs.db.FoodRepository;
+import org.ibs.model.FoodRow;
+import org.ibs.model.FoodType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.function.Executable;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Проверки таблицы FOOD, которые накапливаются в ходе теста и выполняются вместе.
+ * <pre>
+ * db.expectFood(name).type(FoodType.VEGETABLE).exotic(true).count(1);
+ * db.verify();
+ * </pre>
+ * {@link #verify()} читает строки всех упомянутых наименований одним запросом
+ * ({@link FoodRepository#findByNames}) и сообщает обо всех несовпадениях сразу, как {@link Assertions#assertAll}.
+ */
+public class FoodExpectations {
+    private final FoodRepository repository;
+    private final List<Expectation> expectations = new ArrayList<>();
+
+    public FoodExpectations(FoodRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Начинает ожидание для строк с заданным наименованием. По умолчанию ожидается ровно одна строка.
+     */
+    public Expectation expectFood(String name) {
+        Expectation expectation = new Expectation(name);
+        expectations.add(expectation);
+        return expectation;
+    }
+
+    /**
+     * Проверяет накопленные ожидания и очищает их, чтобы объект можно было использовать для следующих проверок.
+     * @throws SQLException если возникает ошибка при работе с базой данных.
+     */
+    public void verify() throws SQLException {
+        if (expectations.isEmpty()) {
+            return;
+        }
+        List<Expectation> pending = List.copyOf(expectations);
+        expectations.clear();
+        Set<String> names = new LinkedHashSet<>();
+        pending.forEach(expectation -> names.add(expectation.name));
+        Map<String, List<FoodRow>> rowsByName = repository.findByNames(names).stream()
+                .collect(Collectors.groupingBy(FoodRow::name));
+
+        List<Executable> checks = new ArrayList<>(pending.size());
+        for (Expectation expectation : pending) {
+            List<FoodRow> rows = rowsByName.getOrDefault(expectation.name, List.of());
+            long matching = rows.stream().filter(expectation::matches).count();
+            checks.add(() -> Assertions.assertEquals(expectation.count, matching,
+                    () -> expectation + ", найдено " + matching + ". Строки с этим наименованием: " + rows));
+        }
+        Assertions.assertAll("Проверки таблицы FOOD", checks);
+    }
+
+    /**
+     * Ожидание для строк с одним наименованием.
+     */
+    public static class Expectation {
+        private final String name;
+        private FoodType type;
+        private Boolean exotic;
+        private long count = 1;
+
+        private Expectation(String name) {
+            this.name = name;
+        }
+
+        public Expectation type(FoodType type) {
+            this.type = type;
+            return this;
+        }
+
+        public Expectation exotic(boolean exotic) {
+            this.exotic = exotic;
+            return this;
+        }
+
+        /**
+         * Количество строк с этим наименованием и заданными типом и экзотичностью.
+         */
+        public Expectation count(long count) {
+            this.count = count;
+            return this;
+        }
+
+        private boolean matches(FoodRow row) {
+            return (type == null || type == row.type()) && (exotic == null || exotic == row.exotic());
+        }
+
+        @Override
+        public String toString() {
+            return "Ожидалось строк \"" + name + "\"" + (type == null ? "" : ", тип " + type.getTitle())
+                    + (exotic == null ? "" : ", экзотический " + exotic) + ": " + count;
+        }
+    }
+}
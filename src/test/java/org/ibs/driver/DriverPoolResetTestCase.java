@@ -0,0 +1,84 @@
+package org.ibs.driver;
+
+import org.ibs.extensions.FoodEnvironment;
+import org.ibs.model.FoodType;
+import org.ibs.pages.FoodPage;
+import org.ibs.stub.FoodStubServer;
+import org.ibs.utils.WorkerNamespace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Класс DriverPoolResetTestCase проверяет сброс сессии пула на месте {@link DriverFactory#resetInPlace}
+ * на встроенном сервере {@link FoodStubServer}: после возврата сессии таблица возвращается к исходной
+ * без перехода на страницу и без повторного открытия страницы.
+ */
+public class DriverPoolResetTestCase {
+    private FoodStubServer server;
+    private DriverPool pool;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = FoodStubServer.start(FoodEnvironment.JDBC_USER, FoodEnvironment.JDBC_PASSWORD);
+        String baseUrl = server.getBaseUrl();
+        pool = new DriverPool(() -> DriverFactory.createChrome(baseUrl),
+                driver -> DriverFactory.resetInPlace(driver, baseUrl), 1, 20);
+    }
+
+    @AfterEach
+    void stopServer() {
+        pool.close();
+        server.close();
+    }
+
+    @Test
+    @ResourceLock(Resources.SYSTEM_ERR)
+    void testReleaseResetsPageInPlace() throws Exception {
+        DriverSession session = pool.lease();
+        String name = WorkerNamespace.name("Сброс");
+        session.getFoodPage().clickAddBtn()
+                .fillNameField(name)
+                .setType(FoodType.FRUIT.getTitle())
+                .clickSaveBtn()
+                .awaitRowAdded()
+                .awaitNetworkIdle();
+        Assertions.assertTrue(session.getFoodPage().streamRows().anyMatch(row -> name.equals(row.name())),
+                "Строка не добавилась");
+        ((JavascriptExecutor) session.getDriver()).executeScript("window.__resetMarker = true;");
+        // Таблица FOOD восстанавливается до возврата сессии, как в FoodSnapshotExtension
+        server.reset();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream err = System.err;
+        System.setErr(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            pool.release(session, false);
+        } finally {
+            System.setErr(err);
+        }
+
+        DriverSession reused = pool.lease();
+        try {
+            FoodPage foodPage = reused.getFoodPage();
+            Object marker = ((JavascriptExecutor) reused.getDriver()).executeScript("return window.__resetMarker === true;");
+            String warnings = output.toString(StandardCharsets.UTF_8);
+            Assertions.assertAll("Сброс на месте",
+                    () -> Assertions.assertSame(session, reused, "Сессия не переиспользована"),
+                    () -> Assertions.assertEquals(Boolean.TRUE, marker, "Страница открыта заново"),
+                    () -> Assertions.assertFalse(warnings.contains("Страница будет открыта заново"), warnings),
+                    () -> Assertions.assertFalse(foodPage.streamRows().anyMatch(row -> WorkerNamespace.owns(row.name())),
+                            "Строки потока остались в таблице"));
+        } finally {
+            pool.release(reused, false);
+        }
+    }
+}
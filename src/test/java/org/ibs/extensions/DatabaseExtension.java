@@ -0,0 +1,82 @@
+package org.ibs.extensions;
+
+import org.ibs.assertions.FoodExpectations;
+import org.ibs.db.ConnectionPool;
+import org.ibs.db.FoodRepository;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+import java.util.Optional;
+
+/**
+ * Расширение JUnit 5, которое передаёт тестам общий для всего запуска {@link FoodRepository}
+ * и новые для каждого параметра {@link FoodExpectations}.
+ * <p>
+ * Адрес базы данных определяет {@link FoodEnvironment}, размер пула соединений - свойство {@code food.jdbc.pool.size}.
+ */
+public class DatabaseExtension implements ParameterResolver {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(DatabaseExtension.class);
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        Class<?> type = parameterContext.getParameter().getType();
+        return type == FoodRepository.class || type == FoodExpectations.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        FoodRepository repository = repository(extensionContext);
+        return parameterContext.getParameter().getType() == FoodExpectations.class
+                ? new FoodExpectations(repository)
+                : repository;
+    }
+
+    /**
+     * Возвращает репозиторий, общий для всего запуска тестов. JUnit закрывает его после выполнения последнего теста.
+     */
+    public static FoodRepository repository(ExtensionContext context) {
+        return resource(context).repository;
+    }
+
+    /**
+     * Возвращает пул соединений, общий для всего запуска тестов.
+     */
+    public static ConnectionPool pool(ExtensionContext context) {
+        return resource(context).pool;
+    }
+
+    /**
+     * Репозиторий, если он уже создан в этом запуске тестов. В отличие от {@link #repository(ExtensionContext)},
+     * не открывает соединения с базой.
+     */
+    static Optional<FoodRepository> existingRepository(ExtensionContext context) {
+        return Optional.ofNullable(context.getRoot().getStore(NAMESPACE).get(RepositoryResource.class, RepositoryResource.class))
+                .map(resource -> resource.repository);
+    }
+
+    private static RepositoryResource resource(ExtensionContext context) {
+        String jdbcUrl = FoodEnvironment.jdbcUrl(context);
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(RepositoryResource.class, key -> new RepositoryResource(jdbcUrl), RepositoryResource.class);
+    }
+
+    private static class RepositoryResource implements ExtensionContext.Store.CloseableResource {
+        private final ConnectionPool pool;
+        private final FoodRepository repository;
+
+        RepositoryResource(String jdbcUrl) {
+            pool = new ConnectionPool(jdbcUrl, FoodEnvironment.JDBC_USER, FoodEnvironment.JDBC_PASSWORD,
+                    Integer.getInteger("food.jdbc.pool.size", Runtime.getRuntime().availableProcessors()));
+            repository = new FoodRepository(pool);
+        }
+
+        @Override
+        public void close() {
+            repository.close();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.ibs.extensions;
+
+import org.ibs.driver.DriverFactory;
+import org.ibs.driver.DriverPool;
+import org.ibs.driver.DriverSession;
+import org.ibs.driver.SharedBrowser;
+import org.ibs.metrics.LatencyListener;
+import org.ibs.metrics.LatencyRecorder;
+import org.ibs.metrics.TimingStore;
+import org.ibs.pages.FoodPage;
+import org.ibs.pages.WaitTiming;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Расширение JUnit 5, которое выдаёт каждому тесту сессию браузера из общего пула {@link DriverPool}
+ * и возвращает её после теста.
+ * <p>
+ * В методы {@code @BeforeEach} и в тесты можно получить {@link WebDriver}, {@link DriverSession} или {@link FoodPage}.
+ * Адрес страницы определяет {@link FoodEnvironment}. Настройки: {@code food.pool.size} - размер пула,
+ * {@code food.pool.maxUses} - число тестов, после которого сессия пересоздаётся. Между тестами страница обновляется
+ * на месте ({@link DriverFactory#resetInPlace}), при {@code food.pool.reload=true} - открывается заново.
+ * Фактические длительности ожиданий страницы публикуются в отчёт JUnit, статистика пула выводится по окончании запуска.
+ * Задержки всех команд WebDriver собираются {@link LatencyListener} и по окончании запуска сохраняются в JSON
+ * в каталог {@code food.latency.dir} (по умолчанию {@code target/latency}). Выученные бюджеты ожиданий
+ * {@link TimingStore} сохраняются для следующих запусков.
+ * При {@code food.cdp=true} браузеры запускаются в режиме CDP ({@link org.ibs.driver.NetworkMonitor}) с блокировкой
+ * типов ресурсов из {@code food.cdp.block} (по умолчанию {@code Image,Stylesheet,Font,Media}).
+ * При {@code food.contexts=true} все сессии пула - вкладки изолированных контекстов одного браузера {@link SharedBrowser}.
+ */
+public class DriverPoolExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(DriverPoolExtension.class);
+    private static final DateTimeFormatter REPORT_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Override
+    public void beforeEach(ExtensionContext context) throws Exception {
+        DriverSession session = pool(context).lease();
+        context.getStore(NAMESPACE).put(DriverSession.class, session);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        DriverSession session = context.getStore(NAMESPACE).remove(DriverSession.class, DriverSession.class);
+        if (session != null) {
+            try {
+                for (WaitTiming timing : session.getFoodPage().getWaitTimings()) {
+                    context.publishReportEntry("wait." + timing.action(), timing.duration().toMillis() + " ms");
+                }
+            } finally {
+                pool(context).release(session, context.getExecutionException().isPresent());
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        Class<?> type = parameterContext.getParameter().getType();
+        return type == WebDriver.class || type == DriverSession.class || type == FoodPage.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        DriverSession session = session(extensionContext);
+        Class<?> type = parameterContext.getParameter().getType();
+        if (type == DriverSession.class) {
+            return session;
+        }
+        return type == FoodPage.class ? session.getFoodPage() : session.getDriver();
+    }
+
+    /**
+     * Возвращает сессию, выданную текущему тесту.
+     */
+    public static DriverSession session(ExtensionContext context) {
+        DriverSession session = context.getStore(NAMESPACE).get(DriverSession.class, DriverSession.class);
+        if (session == null) {
+            throw new ParameterResolutionException("Сессия браузера не выдана: тест не зарегистрировал DriverPoolExtension");
+        }
+        return session;
+    }
+
+    /**
+     * Сессия, выданная текущему тесту, если тест зарегистрировал это расширение.
+     */
+    static Optional<DriverSession> currentSession(ExtensionContext context) {
+        return Optional.ofNullable(context.getStore(NAMESPACE).get(DriverSession.class, DriverSession.class));
+    }
+
+    static DriverPool pool(ExtensionContext context) {
+        String baseUrl = FoodEnvironment.baseUrl(context);
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(PoolResource.class, key -> new PoolResource(baseUrl), PoolResource.class).pool;
+    }
+
+    /**
+     * Пул, привязанный ко всему запуску тестов: JUnit закрывает его после выполнения последнего теста.
+     */
+    private static class PoolResource implements ExtensionContext.Store.CloseableResource {
+        private final LatencyRecorder latencies = new LatencyRecorder();
+        private final SharedBrowser browser = Boolean.getBoolean("food.contexts") ? SharedBrowser.start() : null;
+        private final DriverPool pool;
+
+        PoolResource(String baseUrl) {
+            LatencyListener listener = new LatencyListener(latencies);
+            Set<String> blocked = Boolean.getBoolean("food.cdp")
+                    ? Arrays.stream(System.getProperty("food.cdp.block", "Image,Stylesheet,Font,Media").split(","))
+                            .map(String::trim).filter(type -> !type.isEmpty()).collect(Collectors.toSet())
+                    : null;
+            pool = new DriverPool(
+                    () -> browser == null
+                            ? DriverFactory.createChrome(baseUrl, blocked, listener)
+                            : DriverFactory.createInContext(browser, baseUrl, blocked, listener),
+                    Boolean.getBoolean("food.pool.reload")
+                            ? driver -> DriverFactory.reset(driver, baseUrl)
+                            : driver -> DriverFactory.resetInPlace(driver, baseUrl),
+                    Integer.getInteger("food.pool.size", Runtime.getRuntime().availableProcessors()),
+                    Integer.getInteger("food.pool.maxUses", 20));
+        }
+
+        @Override
+        public void close() throws IOException {
+            pool.close();
+            if (browser != null) {
+                browser.close();
+            }
+            System.out.println(pool.stats());
+            Path report = Path.of(System.getProperty("food.latency.dir", "target/latency"),
+                    "food-latency-" + LocalDateTime.now().format(REPORT_TIMESTAMP) + ".json");
+            latencies.export(report);
+            System.out.println("Задержки команд WebDriver: " + report.toAbsolutePath());
+            TimingStore.shared().save();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.ibs.extensions;
+
+import org.ibs.db.FoodRepository;
+import org.ibs.driver.DriverSession;
+import org.ibs.model.FoodRow;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Расширение JUnit 5, которое при падении теста сохраняет снимок экрана, HTML {@code tbody} таблицы товаров
+ * и содержимое таблицы FOOD.
+ * <p>
+ * Тестовый поток только получает данные (снимок экрана - строкой base64, без декодирования), а декодирование,
+ * сжатие в zip и запись на диск выполняет фоновый поток. Каталог {@code food.artifacts.dir}
+ * (по умолчанию {@code target/failures}) хранит не больше {@code food.artifacts.max} архивов (по умолчанию 20):
+ * самые старые удаляются. Если фоновый поток не успевает, новые артефакты отбрасываются, а тест не ждёт.
+ * <p>
+ * Срабатывает до {@code @AfterEach}, пока сессия браузера ещё выдана тесту и таблица FOOD не восстановлена.
+ * Использует {@link DriverPoolExtension}, если оно зарегистрировано. Таблица FOOD сохраняется, только если
+ * {@link DatabaseExtension} уже открыл базу в этом запуске: само расширение соединений с базой не создаёт.
+ */
+public class FailureArtifactsExtension implements AfterTestExecutionCallback {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(FailureArtifactsExtension.class);
+    private static final String TBODY_SCRIPT =
+            "var tbody = document.querySelector('table > tbody'); return tbody ? tbody.outerHTML : '';";
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isEmpty()) {
+            return;
+        }
+        Artifacts artifacts = new Artifacts(context.getUniqueId(), context.getDisplayName(),
+                context.getRequiredTestMethod().getName(), LocalDateTime.now());
+        artifacts.error = context.getExecutionException().get().toString();
+        Optional<DriverSession> session = DriverPoolExtension.currentSession(context);
+        if (session.isPresent()) {
+            WebDriver driver = session.get().getDriver();
+            try {
+                artifacts.screenshotBase64 = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+                artifacts.tbody = String.valueOf(((JavascriptExecutor) driver).executeScript(TBODY_SCRIPT));
+            } catch (RuntimeException e) {
+                artifacts.error += "\nНе удалось получить состояние браузера: " + e;
+            }
+        }
+        Optional<FoodRepository> repository = DatabaseExtension.existingRepository(context);
+        if (repository.isPresent()) {
+            try {
+                artifacts.food = repository.get().findAll();
+            } catch (Exception e) {
+                artifacts.error += "\nНе удалось прочитать таблицу FOOD: " + e;
+            }
+        }
+        writer(context).submit(artifacts);
+    }
+
+    private static ArtifactWriter writer(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(ArtifactWriter.class, key -> new ArtifactWriter(
+                        Path.of(System.getProperty("food.artifacts.dir", "target/failures")),
+                        Integer.getInteger("food.artifacts.max", 20)), ArtifactWriter.class);
+    }
+
+    /**
+     * Данные упавшего теста в том виде, в котором их отдали браузер и база.
+     */
+    private static class Artifacts {
+        private final String uniqueId;
+        private final String displayName;
+        private final String method;
+        private final LocalDateTime time;
+        private String error;
+        private String screenshotBase64;
+        private String tbody;
+        private List<FoodRow> food;
+
+        Artifacts(String uniqueId, String displayName, String method, LocalDateTime time) {
+            this.uniqueId = uniqueId;
+            this.displayName = displayName;
+            this.method = method;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Фоновый поток, который сжимает артефакты в zip и хранит ограниченное число последних архивов.
+     * JUnit закрывает его после выполнения последнего теста, дождавшись записи очереди.
+     */
+    private static class ArtifactWriter implements ExtensionContext.Store.CloseableResource {
+        private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+        private final Path directory;
+        private final int maxArchives;
+        private final ThreadPoolExecutor executor;
+        private final Json json = new Json();
+
+        ArtifactWriter(Path directory, int maxArchives) {
+            this.directory = directory;
+            this.maxArchives = Math.max(1, maxArchives);
+            this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "food-failure-artifacts");
+                        thread.setDaemon(true);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    },
+                    (runnable, pool) -> System.err.println("Артефакты упавшего теста отброшены: очередь записи заполнена"));
+        }
+
+        void submit(Artifacts artifacts) {
+            executor.execute(() -> {
+                try {
+                    write(artifacts);
+                    trim();
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Не удалось сохранить артефакты " + artifacts.displayName + ": " + e);
+                }
+            });
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            executor.shutdown();
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+            }
+        }
+
+        private void write(Artifacts artifacts) throws IOException {
+            Files.createDirectories(directory);
+            Path archive = directory.resolve(artifacts.time.format(FILE_TIMESTAMP) + "-" + artifacts.method + "-"
+                    + Integer.toHexString(artifacts.uniqueId.hashCode()) + ".zip");
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+                Map<String, Object> test = new LinkedHashMap<>();
+                test.put("uniqueId", artifacts.uniqueId);
+                test.put("displayName", artifacts.displayName);
+                test.put("time", artifacts.time.toString());
+                test.put("error", artifacts.error);
+                entry(zip, "test.json", json.toJson(test).getBytes(StandardCharsets.UTF_8));
+                if (artifacts.screenshotBase64 != null) {
+                    entry(zip, "screenshot.png", Base64.getDecoder().decode(artifacts.screenshotBase64));
+                }
+                if (artifacts.tbody != null) {
+                    entry(zip, "tbody.html", artifacts.tbody.getBytes(StandardCharsets.UTF_8));
+                }
+                if (artifacts.food != null) {
+                    List<Map<String, Object>> rows = new ArrayList<>(artifacts.food.size());
+                    for (FoodRow row : artifacts.food) {
+                        Map<String, Object> item = new LinkedHashMap<>();
+                        item.put("name", row.name());
+                        item.put("type", row.type().name());
+                        item.put("exotic", row.exotic());
+                        rows.add(item);
+                    }
+                    entry(zip, "food.json", json.toJson(rows).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        private static void entry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+            zip.putNextEntry(new ZipEntry(name));
+            zip.write(content);
+            zip.closeEntry();
+        }
+
+        /**
+         * Удаляет самые старые архивы сверх {@code maxArchives}. Имена начинаются со времени, поэтому упорядочены.
+         */
+        private void trim() throws IOException {
+            List<Path> archives;
+            try (Stream<Path> files = Files.list(directory)) {
+                archives = files.filter(file -> file.getFileName().toString().endsWith(".zip")).sorted().toList();
+            }
+            for (int i = 0; i < archives.size() - maxArchives; i++) {
+                Files.deleteIfExists(archives.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.ibs.extensions;
+
+import org.ibs.api.FoodApiClient;
+import org.ibs.fixtures.FoodFixtures;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * Расширение JUnit 5, которое передаёт тестам {@link FoodFixtures} для подготовки данных без браузера.
+ * <p>
+ * Способ создания товаров задаёт свойство {@code food.fixtures}: {@code jdbc} (по умолчанию) - пакетная вставка
+ * в таблицу FOOD, {@code http} - запросы к API приложения. Для {@code jdbc} требуется {@link DatabaseExtension}.
+ */
+public class FixturesExtension implements ParameterResolver {
+    private static final boolean OVER_HTTP = "http".equalsIgnoreCase(System.getProperty("food.fixtures", "jdbc"));
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        return parameterContext.getParameter().getType() == FoodFixtures.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        return OVER_HTTP
+                ? FoodFixtures.overHttp(new FoodApiClient(FoodEnvironment.baseUrl(extensionContext)))
+                : FoodFixtures.overJdbc(DatabaseExtension.repository(extensionContext));
+    }
+}
@@ -0,0 +1,62 @@
+package org.ibs.extensions;
+
+import org.ibs.stub.FoodStubServer;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Окружение, с которым работают тесты: внешнее веб-приложение "Еда" или встроенная замена {@link FoodStubServer}.
+ * <p>
+ * Если свойство {@code food.url} не задано, на время запуска поднимается встроенный сервер на случайном порту
+ * с базой H2 в памяти, и тесты не зависят от внешних сервисов. Если задано, используются {@code food.url}
+ * и {@code food.jdbc.url}.
+ */
+public final class FoodEnvironment {
+    public static final boolean EMBEDDED = System.getProperty("food.url") == null;
+    public static final String JDBC_USER = System.getProperty("food.jdbc.user", "user");
+    public static final String JDBC_PASSWORD = System.getProperty("food.jdbc.password", "pass");
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(FoodEnvironment.class);
+
+    private FoodEnvironment() {
+    }
+
+    /**
+     * Адрес страницы со списком продуктов.
+     */
+    public static String baseUrl(ExtensionContext context) {
+        return EMBEDDED ? server(context).getBaseUrl() : System.getProperty("food.url");
+    }
+
+    /**
+     * Адрес базы данных с таблицей FOOD.
+     */
+    public static String jdbcUrl(ExtensionContext context) {
+        return EMBEDDED ? server(context).getJdbcUrl()
+                : System.getProperty("food.jdbc.url", "jdbc:h2:tcp://localhost:9092/mem:testdb");
+    }
+
+    private static FoodStubServer server(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(ServerResource.class, key -> new ServerResource(), ServerResource.class).server;
+    }
+
+    /**
+     * Встроенный сервер, привязанный ко всему запуску тестов. Закрывается JUnit последним, так как создаётся первым.
+     */
+    private static class ServerResource implements ExtensionContext.Store.CloseableResource {
+        private final FoodStubServer server;
+
+        ServerResource() {
+            try {
+                server = FoodStubServer.start(JDBC_USER, JDBC_PASSWORD);
+            } catch (Exception e) {
+                throw new IllegalStateException("Не удалось запустить встроенный сервер приложения \"Еда\"", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            server.close();
+        }
+    }
+}
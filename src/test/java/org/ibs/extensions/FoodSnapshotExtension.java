@@ -0,0 +1,58 @@
+package org.ibs.extensions;
+
+import org.ibs.db.ConnectionPool;
+import org.ibs.db.FoodSnapshot;
+import org.ibs.utils.WorkerNamespace;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.sql.SQLException;
+
+/**
+ * Расширение JUnit 5, которое один раз за запуск делает снимок таблицы FOOD и восстанавливает его после каждого теста,
+ * независимо от того, прошёл тест или нет. Удаляются только строки потока выполнения (см. {@link WorkerNamespace}).
+ * <p>
+ * Требует {@link DatabaseExtension}.
+ */
+public class FoodSnapshotExtension implements BeforeAllCallback, AfterEachCallback {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(FoodSnapshotExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        snapshot(context);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) throws SQLException {
+        snapshot(context).restore(WorkerNamespace.likePattern());
+    }
+
+    /**
+     * Возвращает снимок, общий для всего запуска тестов, и делает его при первом обращении.
+     */
+    public static FoodSnapshot snapshot(ExtensionContext context) {
+        // Пул запрашивается заранее, чтобы JUnit закрыл его после удаления теневой таблицы
+        ConnectionPool pool = DatabaseExtension.pool(context);
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(SnapshotResource.class, key -> new SnapshotResource(pool), SnapshotResource.class)
+                .snapshot;
+    }
+
+    private static class SnapshotResource implements ExtensionContext.Store.CloseableResource {
+        private final FoodSnapshot snapshot;
+
+        SnapshotResource(ConnectionPool pool) {
+            try {
+                snapshot = FoodSnapshot.capture(pool);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Не удалось сделать снимок таблицы FOOD", e);
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            snapshot.close();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.ibs.extensions;
+
+import org.ibs.api.FoodApiClient;
+import org.ibs.driver.DriverPool;
+import org.ibs.driver.DriverSession;
+import org.ibs.load.AddProductLoad;
+import org.ibs.load.LoadProfile;
+import org.ibs.model.FoodRow;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+import java.util.function.Supplier;
+
+/**
+ * Расширение JUnit 5, которое передаёт тестам {@link AddProductLoad} и {@link LoadProfile}.
+ * <p>
+ * Способ добавления задаёт свойство {@code food.load.mode}: {@code http} (по умолчанию) - запросы к API приложения,
+ * {@code ui} - сценарий {@link org.ibs.pages.FoodPage} в сессиях общего пула {@link DriverPoolExtension},
+ * число которых ограничено {@code food.pool.size}. Каждый пользователь держит одну сессию весь прогон.
+ */
+public class LoadExtension implements ParameterResolver {
+    private static final boolean THROUGH_UI = "ui".equalsIgnoreCase(System.getProperty("food.load.mode", "http"));
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        Class<?> type = parameterContext.getParameter().getType();
+        return type == AddProductLoad.class || type == LoadProfile.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        if (parameterContext.getParameter().getType() == LoadProfile.class) {
+            return LoadProfile.fromSystemProperties();
+        }
+        Supplier<AddProductLoad.Action> users;
+        if (THROUGH_UI) {
+            DriverPool pool = DriverPoolExtension.pool(extensionContext);
+            users = () -> new PageUser(pool);
+        } else {
+            FoodApiClient client = new FoodApiClient(FoodEnvironment.baseUrl(extensionContext));
+            users = () -> client::addFood;
+        }
+        return new AddProductLoad(users, DatabaseExtension.repository(extensionContext));
+    }
+
+    /**
+     * Пользователь, добавляющий товары через страницу. Сессия берётся из пула при первом добавлении и возвращается
+     * один раз в конце прогона, поэтому сброс страницы не выполняется на каждое добавление. После ошибки сессия
+     * возвращается как сломанная, и следующее добавление получает новую.
+     */
+    private static final class PageUser implements AddProductLoad.Action {
+        private final DriverPool pool;
+        private DriverSession session;
+
+        PageUser(DriverPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void add(FoodRow row) throws Exception {
+            if (session == null) {
+                session = pool.lease();
+            }
+            boolean failed = true;
+            try {
+                session.getFoodPage().clickAddBtn()
+                        .fillNameField(row.name())
+                        .setType(row.type().getTitle())
+                        .setExotic(row.exotic())
+                        .clickSaveBtn()
+                        .awaitRowAdded();
+                failed = false;
+            } finally {
+                if (failed) {
+                    pool.release(session, true);
+                    session = null;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (session != null) {
+                pool.release(session, false);
+                session = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.ibs.extensions;
+
+import org.ibs.pages.FoodPage;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Бюджет времени отклика страницы для теста, проверяемый {@link PerfBudgetExtension} по всем вызовам
+ * параметризованного теста вместе.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PerfBudget {
+
+    /**
+     * Показатель {@link org.ibs.pages.PerfSample}, например {@link FoodPage#SAVE_TO_RENDER} или {@link FoodPage#NAVIGATION_LOAD}.
+     */
+    String metric() default FoodPage.SAVE_TO_RENDER;
+
+    /**
+     * Допустимый 95-й процентиль, например {@code "300ms"} или {@code "1.5s"}.
+     */
+    String p95();
+}
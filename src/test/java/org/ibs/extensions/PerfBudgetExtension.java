@@ -0,0 +1,190 @@
+package org.ibs.extensions;
+
+import org.ibs.driver.DriverSession;
+import org.ibs.metrics.LatencyHistogram;
+import org.ibs.pages.PerfSample;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Расширение JUnit 5, которое собирает времена, измеренные браузером ({@link PerfSample}), для тестов с {@link PerfBudget}
+ * и после всех тестов класса сравнивает p95 с бюджетом.
+ * <p>
+ * Перед тестом считываются Navigation/Resource Timing открытой страницы, во время теста {@code FoodPage} измеряет время
+ * от сохранения до отрисовки строки. Вызовы параметризованного теста объединяются. Итоги каждого показателя дописываются
+ * в файл тренда {@code food.perf.trend} (по умолчанию {@code food-perf-trend.csv}); если p95 превышает медиану последних
+ * {@value #TREND_WINDOW} запусков больше чем на {@code food.perf.tolerance} (по умолчанию 0.2), запись помечается
+ * как регрессия. Превышение бюджета и бюджет без единого измерения завершают ошибкой класс: все вызовы к этому времени
+ * уже отмечены успешными, поэтому IDE и Surefire показывают нарушение как ошибку класса (контейнера), а не теста.
+ * Нарушения также публикуются в отчёт JUnit класса.
+ * <p>
+ * Регистрируется после {@link DriverPoolExtension}.
+ */
+public class PerfBudgetExtension implements BeforeEachCallback, AfterEachCallback, AfterAllCallback {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(PerfBudgetExtension.class);
+    private static final Path TREND_FILE = Path.of(System.getProperty("food.perf.trend", "food-perf-trend.csv"));
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("food.perf.tolerance", "0.2"));
+    private static final int TREND_WINDOW = 5;
+    private static final String TREND_HEADER = "timestamp;test;metric;count;p50_ms;p95_ms;budget_ms;status";
+    private static final Pattern BUDGET = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*(ms|s)");
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (budget(context).isPresent()) {
+            DriverPoolExtension.currentSession(context).ifPresent(session -> session.getFoodPage().collectNavigationTimings());
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Optional<PerfBudget> budget = budget(context);
+        Optional<DriverSession> session = DriverPoolExtension.currentSession(context);
+        if (budget.isEmpty() || session.isEmpty()) {
+            return;
+        }
+        Map<String, LatencyHistogram> metrics = results(context)
+                .computeIfAbsent(testName(context), name -> new ConcurrentHashMap<>());
+        for (PerfSample sample : session.get().getFoodPage().getPerfSamples()) {
+            metrics.computeIfAbsent(sample.metric(), metric -> new LatencyHistogram()).recordNanos(sample.duration().toNanos());
+        }
+        budgets(context).put(testName(context), budget.get());
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws IOException {
+        Map<String, Map<String, LatencyHistogram>> results = results(context);
+        if (results.isEmpty()) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        List<Executable> checks = new ArrayList<>();
+        String timestamp = LocalDateTime.now().toString();
+        synchronized (PerfBudgetExtension.class) {
+            List<String> history = Files.exists(TREND_FILE) ? Files.readAllLines(TREND_FILE, StandardCharsets.UTF_8) : List.of();
+            for (Map.Entry<String, Map<String, LatencyHistogram>> test : results.entrySet()) {
+                PerfBudget budget = budgets(context).get(test.getKey());
+                if (!test.getValue().containsKey(budget.metric())) {
+                    String message = test.getKey() + ": нет измерений " + budget.metric() + ", бюджет " + budget.p95()
+                            + " не проверен";
+                    context.publishReportEntry("perf." + test.getKey() + "." + budget.metric(), "нет измерений");
+                    checks.add(() -> Assertions.fail(message));
+                }
+                for (Map.Entry<String, LatencyHistogram> metric : test.getValue().entrySet()) {
+                    LatencyHistogram histogram = metric.getValue();
+                    double p95 = histogram.percentileMillis(95);
+                    boolean budgeted = budget.metric().equals(metric.getKey());
+                    double limit = budgeted ? parseMillis(budget.p95()) : Double.NaN;
+                    boolean overBudget = budgeted && p95 > limit;
+                    Double median = recentMedian(history, test.getKey(), metric.getKey());
+                    boolean regression = median != null && p95 > median * (1 + TOLERANCE);
+                    String status = overBudget && regression ? "OVER_BUDGET+REGRESSION"
+                            : overBudget ? "OVER_BUDGET" : regression ? "REGRESSION" : "OK";
+                    lines.add(String.format(Locale.ROOT, "%s;%s;%s;%d;%.1f;%.1f;%s;%s", timestamp, test.getKey(),
+                            metric.getKey(), histogram.getCount(), histogram.percentileMillis(50), p95,
+                            budgeted ? String.format(Locale.ROOT, "%.0f", limit) : "", status));
+                    context.publishReportEntry("perf." + test.getKey() + "." + metric.getKey(),
+                            String.format(Locale.ROOT, "p95 %.1f ms (%s)", p95, status));
+                    if (regression) {
+                        System.err.printf(Locale.ROOT, "Регрессия %s %s: p95 %.1f мс, медиана прошлых запусков %.1f мс%n",
+                                test.getKey(), metric.getKey(), p95, median);
+                    }
+                    if (budgeted) {
+                        String message = String.format(Locale.ROOT, "%s: p95 %s %.1f мс превышает бюджет %s (%d измерений)",
+                                test.getKey(), metric.getKey(), p95, budget.p95(), histogram.getCount());
+                        if (overBudget) {
+                            context.publishReportEntry("perf.breach." + test.getKey(), message);
+                        }
+                        checks.add(() -> Assertions.assertFalse(overBudget, message));
+                    }
+                }
+            }
+            if (history.isEmpty()) {
+                lines.add(0, TREND_HEADER);
+            }
+            Path directory = TREND_FILE.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Files.write(TREND_FILE, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        Assertions.assertAll("Бюджеты времени отклика", checks);
+    }
+
+    /**
+     * Медиана p95 последних запусков показателя или {@code null}, если истории нет.
+     */
+    private static Double recentMedian(List<String> history, String test, String metric) {
+        List<Double> values = new ArrayList<>();
+        for (String line : history) {
+            String[] columns = line.split(";", -1);
+            if (columns.length == 8 && columns[1].equals(test) && columns[2].equals(metric)) {
+                try {
+                    values.add(Double.parseDouble(columns[5]));
+                } catch (NumberFormatException e) {
+                    // Заголовок или повреждённая строка
+                }
+            }
+        }
+        if (values.isEmpty()) {
+            return null;
+        }
+        List<Double> recent = new ArrayList<>(values.subList(Math.max(0, values.size() - TREND_WINDOW), values.size()));
+        recent.sort(null);
+        return recent.get(recent.size() / 2);
+    }
+
+    static double parseMillis(String budget) {
+        Matcher matcher = BUDGET.matcher(budget.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Бюджет задаётся как \"300ms\" или \"1.5s\": " + budget);
+        }
+        double value = Double.parseDouble(matcher.group(1));
+        return "s".equals(matcher.group(2)) ? value * 1000 : value;
+    }
+
+    private static Optional<PerfBudget> budget(ExtensionContext context) {
+        return context.getTestMethod().map(method -> method.getAnnotation(PerfBudget.class));
+    }
+
+    private static String testName(ExtensionContext context) {
+        return context.getRequiredTestClass().getSimpleName() + "#" + context.getRequiredTestMethod().getName();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, LatencyHistogram>> results(ExtensionContext context) {
+        return classStore(context).getOrComputeIfAbsent("results", key -> new ConcurrentHashMap<>(), Map.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, PerfBudget> budgets(ExtensionContext context) {
+        return classStore(context).getOrComputeIfAbsent("budgets", key -> new ConcurrentHashMap<>(), Map.class);
+    }
+
+    /**
+     * Хранилище контекста класса: общее для всех тестов и вызовов параметризованных тестов класса.
+     */
+    private static ExtensionContext.Store classStore(ExtensionContext context) {
+        ExtensionContext current = context;
+        while (current.getTestMethod().isPresent() && current.getParent().isPresent()) {
+            current = current.getParent().get();
+        }
+        return current.getStore(NAMESPACE);
+    }
+}
@@ -0,0 +1,106 @@
+package org.ibs.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Класс TimingStoreTestCase проверяет бюджеты ожиданий {@link TimingStore}: ограничение бюджета, переход от истории
+ * прошлых запусков к текущим измерениям, сглаживание при сохранении и предупреждение о росте задержки.
+ */
+public class TimingStoreTestCase {
+    private static final String ACTION = "clickAddBtn";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testBudgetWithoutHistoryIsMaximal() {
+        TimingStore store = new TimingStore(directory.resolve("waits.properties"), 3);
+        Assertions.assertEquals(TimingStore.MAX_BUDGET, store.budget(ACTION));
+    }
+
+    @Test
+    void testBudgetIsClamped() {
+        TimingStore store = new TimingStore(directory.resolve("waits.properties"), 3);
+        record(store, "fast", 20, Duration.ofMillis(10));
+        record(store, "slow", 20, Duration.ofSeconds(5));
+        Assertions.assertAll("Бюджет в пределах от MIN_BUDGET до MAX_BUDGET",
+                () -> Assertions.assertEquals(TimingStore.MIN_BUDGET, store.budget("fast")),
+                () -> Assertions.assertEquals(TimingStore.MAX_BUDGET, store.budget("slow")));
+    }
+
+    @Test
+    void testObservedDurationsReplaceHistory() throws IOException {
+        Path file = write(ACTION + "=200");
+        TimingStore store = new TimingStore(file, 3);
+        Assertions.assertEquals(Duration.ofMillis(600), store.budget(ACTION), "Бюджет по истории");
+
+        record(store, ACTION, 19, Duration.ofMillis(400));
+        Assertions.assertEquals(Duration.ofMillis(600), store.budget(ACTION), "Мало измерений: бюджет по истории");
+
+        record(store, ACTION, 1, Duration.ofMillis(400));
+        Assertions.assertEquals(Duration.ofMillis(1200), store.budget(ACTION), "Бюджет по измерениям");
+    }
+
+    @Test
+    void testSaveSmoothsWithHistory() throws IOException {
+        Path file = write(ACTION + "=200", "awaitRowAdded=700");
+        TimingStore store = new TimingStore(file, 3);
+        record(store, ACTION, 20, Duration.ofMillis(400));
+        record(store, "nextPage", 5, Duration.ofMillis(400));
+        store.save();
+
+        Properties saved = new Properties();
+        try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            saved.load(reader);
+        }
+        Assertions.assertAll("Сохранённые p99",
+                () -> Assertions.assertEquals(300.0, Double.parseDouble(saved.getProperty(ACTION)), "Сглаживание 0.5"),
+                () -> Assertions.assertEquals(700.0, Double.parseDouble(saved.getProperty("awaitRowAdded")),
+                        "История без новых измерений сохраняется"),
+                () -> Assertions.assertNull(saved.getProperty("nextPage"), "Мало измерений для сохранения"));
+        try (Stream<Path> files = Files.list(directory)) {
+            Assertions.assertEquals(1, files.count(), "Временный файл не удалён");
+        }
+        Assertions.assertEquals(Duration.ofMillis(900), new TimingStore(file, 3).budget(ACTION), "Бюджет следующего запуска");
+    }
+
+    @Test
+    @ResourceLock(Resources.SYSTEM_ERR)
+    void testDriftIsReportedOnce() throws IOException {
+        TimingStore store = new TimingStore(write(ACTION + "=100"), 3);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream err = System.err;
+        System.setErr(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            record(store, ACTION, 40, Duration.ofMillis(300));
+        } finally {
+            System.setErr(err);
+        }
+        String warnings = output.toString(StandardCharsets.UTF_8);
+        Assertions.assertEquals(1, warnings.split(ACTION, -1).length - 1, "Предупреждение о росте задержки: " + warnings);
+    }
+
+    private Path write(String... lines) throws IOException {
+        return Files.write(directory.resolve("waits.properties"), String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void record(TimingStore store, String action, int count, Duration duration) {
+        for (int i = 0; i < count; i++) {
+            store.record(action, duration);
+        }
+    }
+}
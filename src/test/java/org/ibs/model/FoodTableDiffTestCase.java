@@ -0,0 +1,87 @@
+package org.ibs.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Класс FoodTableDiffTestCase проверяет сравнение строк таблицы FOOD и страницы {@link FoodTableDiff#compare}:
+ * отсутствующие, лишние и различающиеся строки с учётом кратности повторяющихся строк.
+ */
+public class FoodTableDiffTestCase {
+    private static final FoodRow POTATO = new FoodRow("Картофель", FoodType.VEGETABLE, false);
+    private static final FoodRow MANGOSTEEN = new FoodRow("Mangosteen", FoodType.FRUIT, true);
+    private static final FoodRow GRAPE = new FoodRow("Виноград", FoodType.FRUIT, false);
+
+    @Test
+    void testEqualTablesInAnyOrder() {
+        FoodTableDiff diff = FoodTableDiff.compare(List.of(POTATO, MANGOSTEEN, GRAPE), List.of(GRAPE, POTATO, MANGOSTEEN));
+        Assertions.assertTrue(diff.isEmpty(), diff::toString);
+    }
+
+    @Test
+    void testMissingAndExtraRows() {
+        FoodTableDiff diff = FoodTableDiff.compare(List.of(POTATO, MANGOSTEEN), List.of(POTATO, GRAPE));
+        Assertions.assertAll("Расхождения",
+                () -> Assertions.assertEquals(List.of(MANGOSTEEN), diff.missing(), "Нет на странице"),
+                () -> Assertions.assertEquals(List.of(GRAPE), diff.extra(), "Нет в базе"),
+                () -> Assertions.assertEquals(List.of(), diff.mismatched(), "Различаются"));
+    }
+
+    @Test
+    void testDuplicatesAreCountedWithMultiplicity() {
+        FoodTableDiff fewerOnPage = FoodTableDiff.compare(List.of(GRAPE, GRAPE, POTATO), List.of(POTATO, GRAPE));
+        FoodTableDiff moreOnPage = FoodTableDiff.compare(List.of(GRAPE), List.of(GRAPE, GRAPE));
+        Assertions.assertAll("Повторяющиеся строки",
+                () -> Assertions.assertEquals(List.of(GRAPE), fewerOnPage.missing(), "Второй дубликат не отображён"),
+                () -> Assertions.assertEquals(List.of(), fewerOnPage.extra()),
+                () -> Assertions.assertEquals(List.of(GRAPE), moreOnPage.extra(), "Лишний дубликат на странице"),
+                () -> Assertions.assertEquals(List.of(), moreOnPage.missing()));
+    }
+
+    @Test
+    void testSameNameWithDifferentFieldsIsMismatch() {
+        FoodRow exoticPotato = new FoodRow(POTATO.name(), FoodType.VEGETABLE, true);
+        FoodRow unknownGrape = new FoodRow(GRAPE.name(), FoodType.UNKNOWN, false);
+        FoodTableDiff diff = FoodTableDiff.compare(List.of(POTATO, GRAPE), List.of(exoticPotato, unknownGrape));
+        Assertions.assertAll("Различающиеся строки",
+                () -> Assertions.assertEquals(List.of(new FoodTableDiff.Mismatch(POTATO, exoticPotato),
+                        new FoodTableDiff.Mismatch(GRAPE, unknownGrape)), diff.mismatched()),
+                () -> Assertions.assertEquals(List.of(), diff.missing()),
+                () -> Assertions.assertEquals(List.of(), diff.extra()));
+    }
+
+    @Test
+    void testMismatchPairsOnlyUnmatchedDuplicates() {
+        FoodRow exoticGrape = new FoodRow(GRAPE.name(), FoodType.FRUIT, true);
+        FoodTableDiff diff = FoodTableDiff.compare(List.of(GRAPE, GRAPE), List.of(GRAPE, exoticGrape, exoticGrape));
+        Assertions.assertAll("Дубликаты с различиями",
+                () -> Assertions.assertEquals(List.of(new FoodTableDiff.Mismatch(GRAPE, exoticGrape)), diff.mismatched()),
+                () -> Assertions.assertEquals(List.of(exoticGrape), diff.extra()),
+                () -> Assertions.assertEquals(List.of(), diff.missing()));
+    }
+
+    @Test
+    void testUnknownTypesNeverMatch() {
+        FoodRow mushroomInDatabase = new FoodRow("Шампиньон", FoodType.parseCode("MUSHROOM"), false);
+        FoodRow mushroomOnPage = new FoodRow("Шампиньон", FoodType.parseTitle("Гриб"), false);
+        FoodRow unknownOnPage = new FoodRow("Трюфель", FoodType.UNKNOWN, true);
+        FoodTableDiff diff = FoodTableDiff.compare(List.of(POTATO, mushroomInDatabase, unknownOnPage),
+                List.of(mushroomOnPage, POTATO, unknownOnPage));
+        Assertions.assertAll("Строки с нераспознанным типом с обеих сторон",
+                () -> Assertions.assertEquals(List.of(new FoodTableDiff.Mismatch(mushroomInDatabase, mushroomOnPage),
+                        new FoodTableDiff.Mismatch(unknownOnPage, unknownOnPage)), diff.mismatched()),
+                () -> Assertions.assertEquals(List.of(), diff.missing()),
+                () -> Assertions.assertEquals(List.of(), diff.extra()));
+    }
+
+    @Test
+    void testUnknownCodesAreReportable() {
+        Assertions.assertAll("Нераспознанные типы",
+                () -> Assertions.assertEquals(FoodType.UNKNOWN, FoodType.parseCode("MUSHROOM")),
+                () -> Assertions.assertEquals(FoodType.UNKNOWN, FoodType.parseTitle("Гриб")),
+                () -> Assertions.assertEquals(FoodType.FRUIT, FoodType.parseCode("FRUIT")),
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> FoodType.fromTitle("Неизвестный")));
+    }
+}
@@ -0,0 +1,109 @@
+package org.ibs.params;
+
+import org.ibs.db.FoodRepository;
+import org.ibs.extensions.DatabaseExtension;
+import org.ibs.model.FoodRow;
+import org.ibs.model.FoodType;
+import org.ibs.utils.WorkerNamespace;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.support.AnnotationConsumer;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Ленивый генератор товаров для {@link GeneratedFoodSource}.
+ * <p>
+ * Товар с номером {@code i} определяется только номером: перебираются длина наименования (минимальная, обычная,
+ * {@link GeneratedFoodSource#maxLength()}), экзотичность, алфавит (кириллица, латиница) и тип, а уникальность
+ * обеспечивает код номера в конце наименования. Поэтому набор не хранится в памяти и первые товары выдаются сразу.
+ * Занятые наименования читаются из таблицы FOOD одним запросом перед началом генерации; суффиксы потоков
+ * {@link WorkerNamespace} при сравнении отбрасываются.
+ */
+public class GeneratedFoodProvider implements ArgumentsProvider, AnnotationConsumer<GeneratedFoodSource> {
+    private static final String CYRILLIC = "абвгдеёжзийклмнопрстуфхцчшщъыьэюя";
+    private static final String LATIN = "abcdefghijklmnopqrstuvwxyz";
+    private static final List<String> CYRILLIC_WORDS =
+            List.of("Картофель", "Морковь", "Свёкла", "Клубника", "Черешня", "Мангостин");
+    private static final List<String> LATIN_WORDS =
+            List.of("Melotria", "Mangosteen", "Rambutan", "Okra", "Pitahaya", "Romanesco");
+
+    private enum Length { MIN, REGULAR, MAX }
+
+    private int count;
+    private FoodType[] types;
+    private int maxLength;
+
+    @Override
+    public void accept(GeneratedFoodSource source) {
+        if (source.types().length == 0) {
+            throw new IllegalArgumentException("Не заданы типы товаров");
+        }
+        this.count = Integer.getInteger("food.data.count", source.count());
+        this.types = source.types();
+        this.maxLength = source.maxLength();
+    }
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) throws SQLException {
+        FoodRepository repository = DatabaseExtension.repository(context);
+        Set<String> taken = new HashSet<>();
+        for (String name : repository.findAllNames()) {
+            taken.add(WorkerNamespace.base(name));
+        }
+        return LongStream.iterate(0, i -> i + 1)
+                .mapToObj(this::generate)
+                .filter(row -> !taken.contains(row.name()))
+                .limit(count)
+                .map(row -> Arguments.of(row.name(), row.type().getTitle(), row.exotic()));
+    }
+
+    private FoodRow generate(long index) {
+        long combination = index;
+        Length length = Length.values()[(int) (combination % Length.values().length)];
+        combination /= Length.values().length;
+        boolean exotic = combination % 2 == 1;
+        combination /= 2;
+        boolean latin = combination % 2 == 1;
+        combination /= 2;
+        FoodType type = types[(int) (combination % types.length)];
+
+        String code = encode(index, latin ? LATIN : CYRILLIC);
+        List<String> words = latin ? LATIN_WORDS : CYRILLIC_WORDS;
+        String word = words.get((int) (index % words.size()));
+        String name = switch (length) {
+            case MIN -> Character.toUpperCase(code.charAt(0)) + code.substring(1);
+            case REGULAR -> word + " " + code;
+            case MAX -> pad(word, maxLength - code.length() - 1) + " " + code;
+        };
+        return new FoodRow(name, type, exotic);
+    }
+
+    /**
+     * Номер в системе счисления по основанию алфавита: разные номера дают разные коды.
+     */
+    private static String encode(long index, String alphabet) {
+        StringBuilder code = new StringBuilder();
+        do {
+            code.append(alphabet.charAt((int) (index % alphabet.length())));
+            index /= alphabet.length();
+        } while (index > 0);
+        return code.reverse().toString();
+    }
+
+    private static String pad(String word, int length) {
+        int target = Math.max(length, 1);
+        StringBuilder text = new StringBuilder(target + word.length());
+        while (text.length() < target) {
+            text.append(word);
+        }
+        text.setLength(target);
+        return text.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package org.ibs.params;
+
+import org.ibs.model.FoodType;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Источник сгенерированных товаров для параметризованных тестов вида {@code (String name, String type, boolean exotic)}.
+ * <p>
+ * Наименования уникальны и не совпадают с наименованиями, уже записанными в таблицу FOOD.
+ * Количество можно переопределить параметром запуска {@code food.data.count}.
+ * @see GeneratedFoodProvider
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ArgumentsSource(GeneratedFoodProvider.class)
+public @interface GeneratedFoodSource {
+
+    /**
+     * Количество товаров.
+     */
+    int count() default 100;
+
+    /**
+     * Типы товаров, которые чередуются в наборе.
+     */
+    FoodType[] types() default {FoodType.VEGETABLE, FoodType.FRUIT};
+
+    /**
+     * Максимальная длина наименования: длина столбца FOOD_NAME (255) за вычетом запаса под суффикс
+     * {@link org.ibs.utils.WorkerNamespace}.
+     */
+    int maxLength() default 240;
+}
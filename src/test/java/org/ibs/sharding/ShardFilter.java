@@ -0,0 +1,122 @@
+package org.ibs.sharding;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Фильтр JUnit Platform, который оставляет в запуске только тесты своего шарда.
+ * <p>
+ * Включается параметрами {@code food.shard.total} (число шардов) и {@code food.shard.index} (номер шарда с 0);
+ * каждый шард запускается отдельной JVM с одинаковым файлом {@link TimingHistory}. Тестовые методы распределяются
+ * жадно по убыванию длительности (LPT): очередной метод получает шард с наименьшей суммарной длительностью.
+ * Длительность параметризованного метода - сумма длительностей его вызовов. Для методов без истории берётся
+ * медиана известных длительностей, а при пустой истории - {@value #DEFAULT_MILLIS} мс. Все шарды вычисляют
+ * одно и то же разбиение независимо друг от друга.
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+    private static final long DEFAULT_MILLIS = 5000;
+
+    private final int total = Integer.getInteger("food.shard.total", 1);
+    private final int index = Integer.getInteger("food.shard.index", 0);
+    private final Map<UniqueId, Set<UniqueId>> ownedByRoot = new HashMap<>();
+
+    public ShardFilter() {
+        if (total < 1 || index < 0 || index >= total) {
+            throw new IllegalArgumentException("Некорректный шард: food.shard.index=" + index + ", food.shard.total=" + total);
+        }
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (total == 1 || !isTestMethod(descriptor)) {
+            return FilterResult.included("Шардирование не применяется");
+        }
+        TestDescriptor root = descriptor;
+        while (root.getParent().isPresent()) {
+            root = root.getParent().get();
+        }
+        TestDescriptor engine = root;
+        Set<UniqueId> owned = ownedByRoot.computeIfAbsent(root.getUniqueId(), id -> assign(engine));
+        return owned.contains(descriptor.getUniqueId())
+                ? FilterResult.included("Шард " + index + " из " + total)
+                : FilterResult.excluded("Назначен другому шарду");
+    }
+
+    private Set<UniqueId> assign(TestDescriptor root) {
+        List<TestDescriptor> methods = new ArrayList<>();
+        collectMethods(root, methods);
+        TreeMap<String, Long> history;
+        try {
+            history = TimingHistory.load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать " + TimingHistory.FILE, e);
+        }
+
+        Map<TestDescriptor, Long> costs = new HashMap<>();
+        List<Long> known = new ArrayList<>();
+        for (TestDescriptor method : methods) {
+            String id = method.getUniqueId().toString();
+            Long exact = history.get(id);
+            long cost = exact != null ? exact
+                    : history.subMap(id + "/", id + "/\uffff").values().stream().mapToLong(Long::longValue).sum();
+            if (exact != null || cost > 0) {
+                costs.put(method, cost);
+                known.add(cost);
+            }
+        }
+        known.sort(null);
+        long fallback = known.isEmpty() ? DEFAULT_MILLIS : known.get(known.size() / 2);
+
+        methods.sort(Comparator.<TestDescriptor>comparingLong(method -> costs.getOrDefault(method, fallback)).reversed()
+                .thenComparing(method -> method.getUniqueId().toString()));
+        long[] loads = new long[total];
+        Set<UniqueId> owned = new HashSet<>();
+        for (TestDescriptor method : methods) {
+            int shard = 0;
+            for (int i = 1; i < total; i++) {
+                if (loads[i] < loads[shard]) {
+                    shard = i;
+                }
+            }
+            loads[shard] += costs.getOrDefault(method, fallback);
+            if (shard == index) {
+                owned.add(method.getUniqueId());
+            }
+        }
+        System.out.printf("Шард %d из %d: %d из %d тестовых методов, ожидаемые длительности шардов, с: %s%n",
+                index, total, owned.size(), methods.size(), Arrays.toString(Arrays.stream(loads).map(l -> l / 1000).toArray()));
+        return owned;
+    }
+
+    private static void collectMethods(TestDescriptor descriptor, List<TestDescriptor> methods) {
+        if (isTestMethod(descriptor)) {
+            methods.add(descriptor);
+            return;
+        }
+        for (TestDescriptor child : descriptor.getChildren()) {
+            collectMethods(child, methods);
+        }
+    }
+
+    /**
+     * Тестовый метод: обычный тест или шаблон параметризованного теста, вызовы которого появятся при выполнении.
+     */
+    private static boolean isTestMethod(TestDescriptor descriptor) {
+        return descriptor.getChildren().isEmpty() && descriptor.getSource().orElse(null) instanceof MethodSource;
+    }
+}
@@ -0,0 +1,74 @@
+package org.ibs.sharding;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Файл с длительностями тестов прошлых запусков: уникальный идентификатор теста JUnit - миллисекунды.
+ * <p>
+ * Для каждого вызова параметризованного теста хранится отдельная запись. Новое измерение сглаживается
+ * с прежним значением, чтобы единичный медленный прогон не перестраивал разбиение. Путь задаёт {@code food.shard.timings}.
+ */
+final class TimingHistory {
+    static final Path FILE = Path.of(System.getProperty("food.shard.timings", "food-timings.properties"));
+    private static final double SMOOTHING = 0.5;
+
+    private TimingHistory() {
+    }
+
+    /**
+     * Длительности из файла, упорядоченные по идентификатору; пустая карта, если файла нет.
+     */
+    static TreeMap<String, Long> load() throws IOException {
+        TreeMap<String, Long> timings = new TreeMap<>();
+        if (!Files.exists(FILE)) {
+            return timings;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(FILE, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        for (String id : properties.stringPropertyNames()) {
+            try {
+                timings.put(id, Long.parseLong(properties.getProperty(id)));
+            } catch (NumberFormatException e) {
+                // Повреждённая запись: тест будет считаться новым
+            }
+        }
+        return timings;
+    }
+
+    /**
+     * Добавляет измерения в файл. Файл блокируется на время записи, поэтому несколько форков могут сохранять
+     * свои измерения одновременно.
+     */
+    static void merge(Map<String, Long> measured) throws IOException {
+        Path directory = FILE.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path lockFile = directory.resolve(FILE.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            TreeMap<String, Long> timings = load();
+            measured.forEach((id, millis) -> timings.merge(id, millis,
+                    (previous, current) -> Math.round(previous * (1 - SMOOTHING) + current * SMOOTHING)));
+            Properties properties = new Properties();
+            timings.forEach((id, millis) -> properties.setProperty(id, Long.toString(millis)));
+            Path temp = Files.createTempFile(directory, FILE.getFileName().toString(), ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Длительности тестов, мс");
+            }
+            Files.move(temp, FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.ibs.sharding;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Слушатель JUnit Platform, который измеряет длительность каждого теста (и каждого вызова параметризованного теста)
+ * и по окончании запуска сохраняет измерения в {@link TimingHistory}. Регистрируется через
+ * {@code META-INF/services}, поэтому работает при любом способе запуска.
+ */
+public class TimingRecorder implements TestExecutionListener {
+    private final Map<String, Long> started = new ConcurrentHashMap<>();
+    private final Map<String, Long> measured = new ConcurrentHashMap<>();
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (testIdentifier.isTest()) {
+            started.put(testIdentifier.getUniqueId(), System.nanoTime());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        Long start = started.remove(testIdentifier.getUniqueId());
+        if (start != null) {
+            measured.put(testIdentifier.getUniqueId(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (measured.isEmpty()) {
+            return;
+        }
+        try {
+            TimingHistory.merge(measured);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package org.ibs.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.ibs.db.ConnectionPool;
+import org.ibs.db.FoodRepository;
+import org.ibs.db.PooledConnection;
+import org.ibs.model.FoodRow;
+import org.ibs.model.FoodType;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Встроенная замена веб-приложения "Еда" для автономного запуска тестов.
+ * <p>
+ * Отдаёт страницу {@code /food} с той же разметкой, что ожидают {@link org.ibs.utils.Locators.FoodPage},
+ * и API {@code GET/POST /api/food}, {@code POST /api/data/reset}. Данные хранятся в таблице FOOD базы H2,
+ * запущенной в том же процессе. Сервер слушает случайный свободный порт на 127.0.0.1.
+ */
+public class FoodStubServer implements AutoCloseable {
+    private static final List<FoodRow> SEED = List.of(
+            new FoodRow("Апельсин", FoodType.FRUIT, false),
+            new FoodRow("Капуста", FoodType.VEGETABLE, false),
+            new FoodRow("Помидор", FoodType.VEGETABLE, false),
+            new FoodRow("Яблоко", FoodType.FRUIT, false));
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String jdbcUrl;
+    private final ConnectionPool pool;
+    private final FoodRepository repository;
+    private final String template;
+    private final Json json = new Json();
+
+    private FoodStubServer(String jdbcUrl, String user, String password) throws IOException, SQLException {
+        this.jdbcUrl = jdbcUrl;
+        this.pool = new ConnectionPool(jdbcUrl, user, password, 4);
+        this.repository = new FoodRepository(pool);
+        try (InputStream page = FoodStubServer.class.getResourceAsStream("/stub/food.html")) {
+            if (page == null) {
+                throw new IOException("Не найден шаблон страницы /stub/food.html");
+            }
+            this.template = new String(page.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        createTable();
+        reset();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "food-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/food", this::handlePage);
+        server.createContext("/api/food", this::handleFood);
+        server.createContext("/api/data/reset", this::handleReset);
+        server.start();
+    }
+
+    /**
+     * Запускает сервер с новой базой H2 в памяти.
+     * @param user имя пользователя базы данных.
+     * @param password пароль пользователя базы данных.
+     */
+    public static FoodStubServer start(String user, String password) throws IOException, SQLException {
+        return new FoodStubServer("jdbc:h2:mem:food-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", user, password);
+    }
+
+    /**
+     * Адрес страницы со списком продуктов.
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/food";
+    }
+
+    /**
+     * Адрес базы данных, в которой хранится таблица FOOD.
+     */
+    public String getJdbcUrl() {
+        return jdbcUrl;
+    }
+
+    /**
+     * Возвращает таблицу FOOD к исходным четырём строкам.
+     */
+    public void reset() throws SQLException {
+        try (PooledConnection connection = pool.acquire();
+             Statement statement = connection.getConnection().createStatement()) {
+            statement.execute("DELETE FROM FOOD");
+            statement.execute("ALTER TABLE FOOD ALTER COLUMN FOOD_ID RESTART WITH 1");
+        }
+        for (FoodRow row : SEED) {
+            repository.insert(row);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        try (PooledConnection connection = pool.acquire();
+             Statement statement = connection.getConnection().createStatement()) {
+            statement.execute("SHUTDOWN");
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        repository.close();
+    }
+
+    private void createTable() throws SQLException {
+        try (PooledConnection connection = pool.acquire();
+             Statement statement = connection.getConnection().createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS FOOD (" +
+                    "FOOD_ID INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                    "FOOD_NAME VARCHAR(255) NOT NULL, " +
+                    "FOOD_TYPE VARCHAR(255) NOT NULL, " +
+                    "FOOD_EXOTIC INT NOT NULL)");
+        }
+    }
+
+    private void handlePage(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            send(exchange, 405, "text/plain", "");
+            return;
+        }
+        StringBuilder rows = new StringBuilder();
+        int index = 1;
+        for (FoodRow row : query()) {
+            rows.append("<tr><th scope=\"row\">").append(index++).append("</th><td>").append(escape(row.name()))
+                    .append("</td><td>").append(row.type().getTitle())
+                    .append("</td><td>").append(row.exotic()).append("</td></tr>");
+        }
+        send(exchange, 200, "text/html", template.replace("{{rows}}", rows));
+    }
+
+    private void handleFood(HttpExchange exchange) throws IOException {
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> {
+                List<Map<String, Object>> items = new ArrayList<>();
+                for (FoodRow row : query()) {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("name", row.name());
+                    item.put("type", row.type().name());
+                    item.put("exotic", row.exotic());
+                    items.add(item);
+                }
+                send(exchange, 200, "application/json", json.toJson(items));
+            }
+            case "POST" -> {
+                FoodRow row;
+                try {
+                    row = parseRow(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                } catch (RuntimeException e) {
+                    send(exchange, 400, "text/plain", "Некорректный товар: " + e.getMessage());
+                    return;
+                }
+                try {
+                    repository.insert(row);
+                } catch (SQLException e) {
+                    send(exchange, 500, "text/plain", e.getMessage());
+                    return;
+                }
+                send(exchange, 200, "application/json", "{}");
+            }
+            default -> send(exchange, 405, "text/plain", "");
+        }
+    }
+
+    /**
+     * Товар из тела запроса {@code POST /api/food}.
+     * @throws RuntimeException если тело не является JSON-объектом, нет наименования
+     *                          или тип не {@code VEGETABLE}/{@code FRUIT}.
+     */
+    private FoodRow parseRow(String body) {
+        Map<String, Object> item = json.toType(body, Json.MAP_TYPE);
+        if (item == null || !(item.get("name") instanceof String name) || name.isBlank()) {
+            throw new IllegalArgumentException("не задано наименование");
+        }
+        FoodType type = FoodType.valueOf(String.valueOf(item.get("type")));
+        if (type == FoodType.UNKNOWN) {
+            throw new IllegalArgumentException("неизвестный тип " + type);
+        }
+        return new FoodRow(name, type, Boolean.TRUE.equals(item.get("exotic")));
+    }
+
+    private void handleReset(HttpExchange exchange) throws IOException {
+        try {
+            reset();
+        } catch (SQLException e) {
+            send(exchange, 500, "text/plain", e.getMessage());
+            return;
+        }
+        send(exchange, 200, "application/json", "{}");
+    }
+
+    private List<FoodRow> query() throws IOException {
+        try {
+            return repository.findAll();
+        } catch (SQLException e) {
+            throw new IOException("Ошибка чтения таблицы FOOD", e);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}